@@ -0,0 +1,61 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.containers.browser;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Detection of the Selenium version that is present on the classpath.
+ * <p>
+ * Note that the manifest of selenium-api is not preserved in the executable benchmark JAR, so
+ * {@link #determineClasspathSeleniumVersion()} measures the fallback path there. Run the benchmark with the plain
+ * module classpath to measure the targeted lookup.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SeleniumUtilsBenchmark
+{
+	@Benchmark
+	public String determineClasspathSeleniumVersion()
+	{
+		return SeleniumUtils.determineClasspathSeleniumVersion();
+	}
+	
+	@Benchmark
+	public String scanAllManifests()
+	{
+		return SeleniumUtils.scanAllManifests(Thread.currentThread().getContextClassLoader());
+	}
+	
+	@Benchmark
+	public String getClasspathSeleniumVersion()
+	{
+		return SeleniumUtils.getClasspathSeleniumVersion();
+	}
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.containers.browser;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.ImmutableCapabilities;
+import org.testcontainers.utility.DockerImageName;
+
+
+/**
+ * Resolution of the browser image for {@link Capabilities}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class StandardImageForCapabilitiesBenchmark
+{
+	@Param({
+		CapabilitiesBrowserWebDriverContainer.BrowserType.CHROME,
+		CapabilitiesBrowserWebDriverContainer.BrowserType.FIREFOX,
+		CapabilitiesBrowserWebDriverContainer.BrowserType.EDGE})
+	public String browserName;
+	
+	protected Capabilities capabilities;
+	
+	@Setup
+	public void setup()
+	{
+		this.capabilities = new ImmutableCapabilities(Map.of("browserName", this.browserName));
+	}
+	
+	@Benchmark
+	public DockerImageName getStandardImageForCapabilities()
+	{
+		return CapabilitiesBrowserWebDriverContainer.getStandardImageForCapabilities(
+			this.capabilities,
+			SeleniumUtils.DEFAULT_SELENIUM_VERSION);
+	}
+}
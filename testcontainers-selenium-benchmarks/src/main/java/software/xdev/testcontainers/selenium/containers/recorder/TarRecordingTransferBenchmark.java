@@ -0,0 +1,95 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.containers.recorder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Copy path of a recording: The tar stream (as returned by Docker) is held in memory, so that only the extraction
+ * and the file writing is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TarRecordingTransferBenchmark
+{
+	@Param({"1", "16", "64"})
+	public int recordingSizeMiB;
+	
+	protected byte[] tar;
+	protected Path directory;
+	protected Path target;
+	
+	@Setup
+	public void setup() throws IOException
+	{
+		// Random content - like a video - can't be compressed by the filesystem
+		final byte[] recording = new byte[this.recordingSizeMiB * 1024 * 1024];
+		new Random(42).nextBytes(recording);
+		
+		final ByteArrayOutputStream bos = new ByteArrayOutputStream(recording.length + 2048);
+		try(final TarArchiveOutputStream tarOut = new TarArchiveOutputStream(bos))
+		{
+			final TarArchiveEntry entry = new TarArchiveEntry("recording.mkv");
+			entry.setSize(recording.length);
+			tarOut.putArchiveEntry(entry);
+			tarOut.write(recording);
+			tarOut.closeArchiveEntry();
+		}
+		this.tar = bos.toByteArray();
+		
+		this.directory = Files.createTempDirectory("tar-recording-transfer-benchmark");
+		this.target = this.directory.resolve("recording.mkv");
+	}
+	
+	@TearDown
+	public void tearDown() throws IOException
+	{
+		Files.deleteIfExists(this.target);
+		Files.deleteIfExists(this.directory);
+	}
+	
+	@Benchmark
+	public long transferFirstFile() throws IOException
+	{
+		return TarRecordingTransfer.transferFirstFile(new ByteArrayInputStream(this.tar), this.target);
+	}
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.concurrent;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Creates named daemon threads, so that background work never prevents the JVM from shutting down.
+ */
+public class NamedDaemonThreadFactory implements ThreadFactory
+{
+	protected final String namePrefix;
+	protected final AtomicInteger threadCounter = new AtomicInteger();
+	
+	public NamedDaemonThreadFactory(final String namePrefix)
+	{
+		this.namePrefix = namePrefix;
+	}
+	
+	@Override
+	public Thread newThread(final Runnable runnable)
+	{
+		final Thread thread = new Thread(runnable, this.namePrefix + "-" + this.threadCounter.incrementAndGet());
+		thread.setDaemon(true);
+		return thread;
+	}
+}
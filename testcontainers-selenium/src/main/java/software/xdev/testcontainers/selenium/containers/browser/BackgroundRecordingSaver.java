@@ -0,0 +1,156 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.containers.browser;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import software.xdev.testcontainers.selenium.concurrent.NamedDaemonThreadFactory;
+
+
+/**
+ * Saves recordings on a bounded background executor, so that the test thread doesn't have to wait for the recording
+ * to be stopped and copied.
+ * <p>
+ * When the queue is full the recording is saved on the calling thread (back pressure).<br/>
+ * Pending saves are flushed when a container is stopped. Saves that are still pending when the JVM exits are
+ * awaited in a shutdown hook - for at most the shutdown flush timeout - as the workers are daemon threads.
+ * </p>
+ */
+public class BackgroundRecordingSaver
+{
+	private static final Logger LOG = LoggerFactory.getLogger(BackgroundRecordingSaver.class);
+	
+	public static final int DEFAULT_MAX_PARALLEL_SAVES = 4;
+	public static final int DEFAULT_MAX_QUEUED_SAVES = 64;
+	public static final Duration DEFAULT_SHUTDOWN_FLUSH_TIMEOUT = Duration.ofMinutes(5);
+	
+	private static final BackgroundRecordingSaver DEFAULT_INSTANCE = new BackgroundRecordingSaver();
+	
+	protected final ThreadPoolExecutor executor;
+	protected final Set<CompletableFuture<RecordingSaveResult>> pendingSaves = ConcurrentHashMap.newKeySet();
+	protected final Queue<RecordingSaveResult> failedSaves = new ConcurrentLinkedQueue<>();
+	protected final Duration shutdownFlushTimeout;
+	protected final AtomicBoolean shutdownHookRegistered = new AtomicBoolean();
+	
+	public BackgroundRecordingSaver()
+	{
+		this(DEFAULT_MAX_PARALLEL_SAVES, DEFAULT_MAX_QUEUED_SAVES, DEFAULT_SHUTDOWN_FLUSH_TIMEOUT);
+	}
+	
+	public BackgroundRecordingSaver(
+		final int maxParallelSaves,
+		final int maxQueuedSaves,
+		final Duration shutdownFlushTimeout)
+	{
+		this.executor = new ThreadPoolExecutor(
+			maxParallelSaves,
+			maxParallelSaves,
+			1,
+			TimeUnit.MINUTES,
+			new ArrayBlockingQueue<>(maxQueuedSaves),
+			new NamedDaemonThreadFactory("recording-saver"),
+			new ThreadPoolExecutor.CallerRunsPolicy());
+		this.executor.allowCoreThreadTimeOut(true);
+		this.shutdownFlushTimeout = shutdownFlushTimeout;
+	}
+	
+	public static BackgroundRecordingSaver getDefault()
+	{
+		return DEFAULT_INSTANCE;
+	}
+	
+	public CompletableFuture<RecordingSaveResult> submit(final Supplier<RecordingSaveResult> save)
+	{
+		this.registerShutdownHookIfRequired();
+		
+		final CompletableFuture<RecordingSaveResult> future = CompletableFuture.supplyAsync(save, this.executor);
+		this.pendingSaves.add(future);
+		future.whenComplete((result, ex) -> {
+			this.pendingSaves.remove(future);
+			if(result != null && !result.succeeded())
+			{
+				this.failedSaves.add(result);
+			}
+		});
+		return future;
+	}
+	
+	/**
+	 * Waits until all pending saves are completed.
+	 *
+	 * @return the saves that failed since the last flush (one entry per test)
+	 */
+	public List<RecordingSaveResult> flush(final Duration timeout)
+	{
+		try
+		{
+			CompletableFuture.allOf(this.pendingSaves.toArray(CompletableFuture[]::new))
+				.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+		}
+		catch(final InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Got interrupted", e);
+		}
+		catch(final TimeoutException te)
+		{
+			LOG.warn("Timed out while waiting for {} recording(s) to be saved", this.pendingSaves.size());
+		}
+		catch(final Exception ex)
+		{
+			LOG.warn("Failed to wait for recordings to be saved", ex);
+		}
+		
+		final List<RecordingSaveResult> failed = new ArrayList<>();
+		RecordingSaveResult result;
+		while((result = this.failedSaves.poll()) != null)
+		{
+			failed.add(result);
+		}
+		return failed;
+	}
+	
+	public int getPendingSaveCount()
+	{
+		return this.pendingSaves.size();
+	}
+	
+	protected void registerShutdownHookIfRequired()
+	{
+		if(this.shutdownHookRegistered.compareAndSet(false, true))
+		{
+			Runtime.getRuntime().addShutdownHook(new Thread(
+				() -> this.flush(this.shutdownFlushTimeout),
+				"recording-saver-shutdown-flush"));
+		}
+	}
+}
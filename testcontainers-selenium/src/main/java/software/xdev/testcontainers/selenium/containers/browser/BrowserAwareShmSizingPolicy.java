@@ -0,0 +1,95 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.containers.browser;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+
+/**
+ * Sizes <code>/dev/shm</code> based on the browser, if it runs headless and the amount of sessions.
+ * <p>
+ * Chromium based browsers render through shared memory and therefore require the most. Firefox mostly uses it for
+ * IPC. Headless browsers don't need memory for the display compositor.<br/>
+ * The result is <code>base + perSession * maxSessions</code>, where <code>base</code> covers the Selenium node
+ * itself and - if not headless - the X server.
+ * </p>
+ */
+public class BrowserAwareShmSizingPolicy implements ShmSizingPolicy
+{
+	protected static final long MB = 1024L * 1024L;
+	
+	protected long baseSize = 64 * MB;
+	protected long headedDisplaySize = 64 * MB;
+	protected long defaultSessionSize = BrowserWebDriverContainer.DEFAULT_SHM_SIZE_PER_SESSION;
+	protected final Map<String, SessionSize> sessionSizes = new HashMap<>(Map.of(
+		"chrome", new SessionSize(512 * MB, 256 * MB),
+		"chromium", new SessionSize(512 * MB, 256 * MB),
+		"edge", new SessionSize(512 * MB, 256 * MB),
+		"firefox", new SessionSize(256 * MB, 128 * MB)));
+	
+	public BrowserAwareShmSizingPolicy withBaseSize(final long baseSize)
+	{
+		this.baseSize = baseSize;
+		return this;
+	}
+	
+	/**
+	 * @param headedDisplaySize Additional size when the browser is not headless
+	 */
+	public BrowserAwareShmSizingPolicy withHeadedDisplaySize(final long headedDisplaySize)
+	{
+		this.headedDisplaySize = headedDisplaySize;
+		return this;
+	}
+	
+	/**
+	 * @param defaultSessionSize Size per session for browsers that have no explicit size
+	 */
+	public BrowserAwareShmSizingPolicy withDefaultSessionSize(final long defaultSessionSize)
+	{
+		this.defaultSessionSize = defaultSessionSize;
+		return this;
+	}
+	
+	public BrowserAwareShmSizingPolicy withSessionSize(
+		final String browser,
+		final long headedSize,
+		final long headlessSize)
+	{
+		this.sessionSizes.put(browser.toLowerCase(Locale.ROOT), new SessionSize(headedSize, headlessSize));
+		return this;
+	}
+	
+	@Override
+	public long computeShmSize(final ShmSizingContext context)
+	{
+		final SessionSize sessionSize = this.sessionSizes.get(
+			context.browser() != null ? context.browser().toLowerCase(Locale.ROOT) : "");
+		final long perSession = sessionSize == null
+			? this.defaultSessionSize
+			: context.headless() ? sessionSize.headless() : sessionSize.headed();
+		
+		return this.baseSize
+			+ (context.headless() ? 0 : this.headedDisplaySize)
+			+ perSession * Math.max(1, context.maxSessions());
+	}
+	
+	protected record SessionSize(long headed, long headless)
+	{
+	}
+}
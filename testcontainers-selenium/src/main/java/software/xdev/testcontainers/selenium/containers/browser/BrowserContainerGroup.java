@@ -0,0 +1,160 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.containers.browser;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import software.xdev.testcontainers.selenium.concurrent.NamedDaemonThreadFactory;
+
+
+/**
+ * Stops many browser containers at once.
+ * <p>
+ * All containers - and for each container the recorder and the browser - are stopped in parallel, after their
+ * pending recordings were saved. Everything has to complete within a shared deadline; Containers that take longer
+ * are reported as timed out and continue to stop in the background.
+ * </p>
+ */
+public class BrowserContainerGroup implements AutoCloseable
+{
+	private static final Logger LOG = LoggerFactory.getLogger(BrowserContainerGroup.class);
+	
+	public static final Duration DEFAULT_DEADLINE = Duration.ofMinutes(2);
+	
+	protected static final ExecutorService STOP_EXECUTOR =
+		Executors.newCachedThreadPool(new NamedDaemonThreadFactory("browser-container-stop"));
+	
+	protected final List<BrowserWebDriverContainer<?>> containers = new CopyOnWriteArrayList<>();
+	protected Duration deadline = DEFAULT_DEADLINE;
+	
+	public BrowserContainerGroup withDeadline(final Duration deadline)
+	{
+		this.deadline = Objects.requireNonNull(deadline);
+		return this;
+	}
+	
+	/**
+	 * @return the added container
+	 */
+	public <C extends BrowserWebDriverContainer<?>> C add(final C container)
+	{
+		this.containers.add(container);
+		return container;
+	}
+	
+	public List<BrowserWebDriverContainer<?>> getContainers()
+	{
+		return List.copyOf(this.containers);
+	}
+	
+	/**
+	 * Stops and removes all containers of the group.
+	 */
+	public List<StopResult> stopAll()
+	{
+		final List<BrowserWebDriverContainer<?>> toStop = this.getContainers();
+		this.containers.removeAll(toStop);
+		return stopAll(toStop, this.deadline);
+	}
+	
+	@Override
+	public void close()
+	{
+		this.stopAll().stream()
+			.filter(result -> !result.succeeded())
+			.forEach(result -> LOG.warn(
+				"Failed to stop {} (timed out: {})",
+				result.container().getContainerId(),
+				result.timedOut(),
+				result.failure()));
+	}
+	
+	/**
+	 * Stops the containers in parallel.
+	 *
+	 * @param deadline Shared by all containers
+	 * @return a result for every container - in the order of the collection
+	 */
+	public static List<StopResult> stopAll(
+		final Collection<? extends BrowserWebDriverContainer<?>> containers,
+		final Duration deadline)
+	{
+		final long startNanos = System.nanoTime();
+		final long deadlineNanos = startNanos + deadline.toNanos();
+		
+		final Map<BrowserWebDriverContainer<?>, CompletableFuture<StopResult>> stops = new LinkedHashMap<>();
+		for(final BrowserWebDriverContainer<?> container : containers)
+		{
+			stops.put(container, container.stopAsync(STOP_EXECUTOR)
+				.handle((recordings, ex) -> ex == null
+					? StopResult.success(container, BrowserWebDriverContainer.since(startNanos), recordings)
+					: StopResult.failure(container, BrowserWebDriverContainer.since(startNanos), unwrap(ex))));
+		}
+		
+		final List<StopResult> results = new ArrayList<>(stops.size());
+		stops.forEach((container, stop) -> results.add(
+			awaitStop(container, stop, startNanos, Math.max(0, deadlineNanos - System.nanoTime()))));
+		return results;
+	}
+	
+	protected static StopResult awaitStop(
+		final BrowserWebDriverContainer<?> container,
+		final CompletableFuture<StopResult> stop,
+		final long startNanos,
+		final long remainingNanos)
+	{
+		try
+		{
+			return stop.get(remainingNanos, TimeUnit.NANOSECONDS);
+		}
+		catch(final TimeoutException ex)
+		{
+			return StopResult.timedOut(container, BrowserWebDriverContainer.since(startNanos));
+		}
+		catch(final ExecutionException ex)
+		{
+			// Should not happen as failures are handled
+			return StopResult.failure(container, BrowserWebDriverContainer.since(startNanos), ex.getCause());
+		}
+		catch(final InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Got interrupted", e);
+		}
+	}
+	
+	protected static Throwable unwrap(final Throwable ex)
+	{
+		return ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+	}
+}
@@ -0,0 +1,406 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.containers.browser;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.lifecycle.TestDescription;
+import org.testcontainers.lifecycle.TestLifecycleAware;
+
+import software.xdev.testcontainers.selenium.concurrent.NamedDaemonThreadFactory;
+
+
+/**
+ * A pool of pre-started (warm) {@link BrowserWebDriverContainer}s.
+ * <p>
+ * Starting a browser container is usually the most expensive part of a UI test. The pool keeps a configurable
+ * amount of containers warm and leases them to tests. When a lease is returned, leftover WebDriver sessions are
+ * deleted and the recorder is restarted, before the container is put back into the pool.<br/>
+ * The cold start cost is only paid when the pool is exhausted.
+ * </p>
+ * <p>
+ * A pool manages containers of a single configuration (image/capabilities). Use one pool per configuration.
+ * </p>
+ *
+ * @param <C> type of the pooled container
+ */
+public class BrowserContainerPool<C extends BrowserWebDriverContainer<?>> implements AutoCloseable
+{
+	private static final Logger LOG = LoggerFactory.getLogger(BrowserContainerPool.class);
+	
+	public static final int DEFAULT_SIZE = 2;
+	
+	protected final Supplier<C> containerFactory;
+	protected int size = DEFAULT_SIZE;
+	protected boolean resetSessionsOnRelease = true;
+	protected boolean restartRecordingOnRelease = true;
+	
+	protected ExecutorService executor;
+	protected boolean shutdownExecutorOnClose;
+	
+	// Contains containers that are either ready or still starting/resetting
+	protected final Deque<CompletableFuture<C>> idle = new ArrayDeque<>();
+	protected final ReentrantLock idleLock = new ReentrantLock();
+	protected final Set<C> leased = ConcurrentHashMap.newKeySet();
+	protected final AtomicBoolean closed = new AtomicBoolean();
+	
+	/**
+	 * @param containerFactory Creates new - not yet started - containers
+	 */
+	public BrowserContainerPool(final Supplier<C> containerFactory)
+	{
+		this.containerFactory = containerFactory;
+	}
+	
+	// region Config
+	
+	/**
+	 * @param size The amount of containers that should be kept warm
+	 */
+	public BrowserContainerPool<C> withSize(final int size)
+	{
+		if(size < 0)
+		{
+			throw new IllegalArgumentException("size must not be negative");
+		}
+		this.size = size;
+		return this;
+	}
+	
+	public BrowserContainerPool<C> withResetSessionsOnRelease(final boolean resetSessionsOnRelease)
+	{
+		this.resetSessionsOnRelease = resetSessionsOnRelease;
+		return this;
+	}
+	
+	/**
+	 * @param restartRecordingOnRelease Restarts the recording container when a lease is returned, so that the
+	 *                                  recording of the next lease doesn't contain the previous test
+	 */
+	public BrowserContainerPool<C> withRestartRecordingOnRelease(final boolean restartRecordingOnRelease)
+	{
+		this.restartRecordingOnRelease = restartRecordingOnRelease;
+		return this;
+	}
+	
+	/**
+	 * @param executor Used for starting and resetting containers in the background
+	 */
+	public BrowserContainerPool<C> withExecutor(final ExecutorService executor)
+	{
+		this.executor = executor;
+		this.shutdownExecutorOnClose = false;
+		return this;
+	}
+	// endregion
+	
+	protected ExecutorService executor()
+	{
+		if(this.executor == null)
+		{
+			this.executor = Executors.newCachedThreadPool(new NamedDaemonThreadFactory("browser-container-pool"));
+			this.shutdownExecutorOnClose = true;
+		}
+		return this.executor;
+	}
+	
+	/**
+	 * Starts containers in the background until the configured size is reached.
+	 */
+	public BrowserContainerPool<C> warmUp()
+	{
+		this.ensureOpen();
+		this.fillIdle();
+		return this;
+	}
+	
+	protected void fillIdle()
+	{
+		this.idleLock.lock();
+		try
+		{
+			// The pool might have been closed concurrently
+			if(this.closed.get())
+			{
+				return;
+			}
+			while(this.idle.size() < this.size)
+			{
+				this.idle.addLast(CompletableFuture.supplyAsync(this::startNewContainer, this.executor()));
+			}
+		}
+		finally
+		{
+			this.idleLock.unlock();
+		}
+	}
+	
+	/**
+	 * Leases a container from the pool.
+	 * <p>
+	 * If a warm container is available it's used; if it's still starting or resetting this waits until it's
+	 * ready.<br/>
+	 * If the pool is exhausted a new container is started on the calling thread. When this container is released
+	 * it's kept in the pool as long as there is space.
+	 * </p>
+	 */
+	public Lease<C> lease()
+	{
+		this.ensureOpen();
+		
+		CompletableFuture<C> candidate;
+		while((candidate = this.pollIdle()) != null)
+		{
+			final C container = this.awaitContainer(candidate).orElse(null);
+			if(container != null)
+			{
+				return this.newLease(container);
+			}
+		}
+		
+		LOG.debug("Pool exhausted; Cold starting new container");
+		return this.newLease(this.startNewContainer());
+	}
+	
+	protected CompletableFuture<C> pollIdle()
+	{
+		this.idleLock.lock();
+		try
+		{
+			return this.idle.pollFirst();
+		}
+		finally
+		{
+			this.idleLock.unlock();
+		}
+	}
+	
+	protected Optional<C> awaitContainer(final CompletableFuture<C> candidate)
+	{
+		try
+		{
+			final C container = candidate.join();
+			if(container.isRunning())
+			{
+				return Optional.of(container);
+			}
+			LOG.warn("Pooled container {} is no longer running; Discarding it", container.getContainerId());
+			this.stopQuietly(container);
+		}
+		catch(final CompletionException ex)
+		{
+			LOG.warn("Failed to provide pooled container; Trying next one", ex.getCause());
+		}
+		return Optional.empty();
+	}
+	
+	protected Lease<C> newLease(final C container)
+	{
+		this.leased.add(container);
+		return new Lease<>(this, container);
+	}
+	
+	protected C startNewContainer()
+	{
+		final C container = this.containerFactory.get();
+		try
+		{
+			container.start();
+		}
+		catch(final RuntimeException ex)
+		{
+			this.stopQuietly(container);
+			throw ex;
+		}
+		return container;
+	}
+	
+	/**
+	 * Returns the container into the pool. Resetting happens in the background.
+	 */
+	protected void release(final C container)
+	{
+		this.leased.remove(container);
+		if(this.closed.get())
+		{
+			this.stopQuietly(container);
+			return;
+		}
+		if(!container.isRunning())
+		{
+			LOG.warn("Released container {} is no longer running; Replacing it", container.getContainerId());
+			this.stopQuietly(container);
+			this.fillIdle();
+			return;
+		}
+		
+		this.idleLock.lock();
+		try
+		{
+			// closed is checked again while holding the lock as close() drains the idle containers under it
+			// The pool might also already be full, e.g. when the container was cold started
+			if(!this.closed.get() && this.idle.size() < this.size)
+			{
+				this.idle.addFirst(CompletableFuture.supplyAsync(() -> this.reset(container), this.executor()));
+				return;
+			}
+		}
+		finally
+		{
+			this.idleLock.unlock();
+		}
+		this.stopQuietly(container);
+	}
+	
+	protected C reset(final C container)
+	{
+		try
+		{
+			if(this.resetSessionsOnRelease)
+			{
+				container.deleteActiveSessions();
+			}
+			if(this.restartRecordingOnRelease)
+			{
+				container.restartRecordingContainer();
+			}
+			return container;
+		}
+		catch(final RuntimeException ex)
+		{
+			this.stopQuietly(container);
+			throw ex;
+		}
+	}
+	
+	protected void stopQuietly(final C container)
+	{
+		try
+		{
+			container.stop();
+		}
+		catch(final Exception ex)
+		{
+			LOG.warn("Failed to stop container", ex);
+		}
+	}
+	
+	protected void ensureOpen()
+	{
+		if(this.closed.get())
+		{
+			throw new IllegalStateException("Pool is closed");
+		}
+	}
+	
+	/**
+	 * @return the amount of containers that are currently leased
+	 */
+	public int getLeasedCount()
+	{
+		return this.leased.size();
+	}
+	
+	/**
+	 * Stops all pooled containers.
+	 * <p>
+	 * Containers that are currently leased are stopped once they are released.
+	 * </p>
+	 */
+	@Override
+	public void close()
+	{
+		final List<CompletableFuture<C>> toStop;
+		this.idleLock.lock();
+		try
+		{
+			this.closed.set(true);
+			toStop = new ArrayList<>(this.idle);
+			this.idle.clear();
+		}
+		finally
+		{
+			this.idleLock.unlock();
+		}
+		
+		toStop.forEach(future -> this.awaitContainer(future).ifPresent(this::stopQuietly));
+		
+		if(this.shutdownExecutorOnClose && this.executor != null)
+		{
+			this.executor.shutdown();
+		}
+	}
+	
+	/**
+	 * A container that is leased from a pool. Closing the lease returns the container into the pool.
+	 * <p>
+	 * The lifecycle callbacks are forwarded to the container, so that recordings are retained per lease.
+	 * </p>
+	 */
+	public static class Lease<C extends BrowserWebDriverContainer<?>> implements TestLifecycleAware, AutoCloseable
+	{
+		protected final BrowserContainerPool<C> pool;
+		protected final C container;
+		protected final AtomicBoolean released = new AtomicBoolean();
+		
+		protected Lease(final BrowserContainerPool<C> pool, final C container)
+		{
+			this.pool = pool;
+			this.container = container;
+		}
+		
+		public C getContainer()
+		{
+			return this.container;
+		}
+		
+		@Override
+		public void beforeTest(final TestDescription description)
+		{
+			this.container.beforeTest(description);
+		}
+		
+		@Override
+		public void afterTest(final TestDescription description, final Optional<Throwable> throwable)
+		{
+			this.container.afterTest(description, throwable);
+		}
+		
+		@Override
+		public void close()
+		{
+			if(this.released.compareAndSet(false, true))
+			{
+				this.pool.release(this.container);
+			}
+		}
+	}
+}
@@ -19,23 +19,44 @@ import java.io.IOException;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -53,20 +74,33 @@ import org.testcontainers.images.RemoteDockerImage;
 import org.testcontainers.lifecycle.TestDescription;
 import org.testcontainers.lifecycle.TestLifecycleAware;
 import org.testcontainers.utility.DockerImageName;
+import org.testcontainers.utility.TestcontainersConfiguration;
 
 import com.github.dockerjava.api.command.InspectContainerResponse;
 import com.github.dockerjava.api.model.AccessMode;
 import com.github.dockerjava.api.model.Bind;
+import com.github.dockerjava.api.model.HostConfig;
 import com.github.dockerjava.api.model.Volume;
 
+import software.xdev.testcontainers.selenium.concurrent.NamedDaemonThreadFactory;
+import software.xdev.testcontainers.selenium.containers.recorder.FfmpegRecordingPostProcessor;
+import software.xdev.testcontainers.selenium.containers.recorder.PostProcessingResult;
 import software.xdev.testcontainers.selenium.containers.recorder.RecordingContainer;
+import software.xdev.testcontainers.selenium.containers.recorder.RecordingPostProcessor;
 import software.xdev.testcontainers.selenium.containers.recorder.SeleniumRecordingContainer;
+import software.xdev.testcontainers.selenium.metrics.LifecycleMetrics;
+import software.xdev.testcontainers.selenium.metrics.LifecycleMetricsListener;
+import software.xdev.testcontainers.selenium.metrics.LifecyclePhase;
+import software.xdev.testcontainers.selenium.network.PooledNetworkManager;
+import software.xdev.testcontainers.selenium.network.ReusableNetwork;
+import software.xdev.testcontainers.selenium.resources.CpusetAllocator;
+import software.xdev.testcontainers.selenium.resources.ResourceLimits;
 
 
 /**
  * A chrome/firefox/custom container based on SeleniumHQ's standalone container sets.
  */
-@SuppressWarnings({"java:S119", "java:S2160", "PMD.GodClass"})
+@SuppressWarnings({"java:S119", "java:S2160", "PMD.GodClass", "PMD.CyclomaticComplexity", "PMD.TooManyMethods"})
 public class BrowserWebDriverContainer<SELF extends BrowserWebDriverContainer<SELF>>
 	extends GenericContainer<SELF>
 	implements TestLifecycleAware
@@ -82,10 +116,25 @@ public class BrowserWebDriverContainer<SELF extends BrowserWebDriverContainer<SE
 	
 	public static final String LOG_MSG_WAIT_STRATEGY_REGEX = ".*(Started Selenium Standalone).*\n";
 	
-	protected static final Map<DockerImageName, String> WORKING_BROWSER_IMAGES_TRANSLATION =
-		Collections.synchronizedMap(new HashMap<>());
+	// Contains the in-flight or completed resolution of each image, so that it's only resolved once
+	protected static final Map<DockerImageName, CompletableFuture<String>> WORKING_BROWSER_IMAGES_TRANSLATION =
+		new ConcurrentHashMap<>();
+	protected static final ImageTagProbe DEFAULT_IMAGE_TAG_PROBE = new ImageTagProbe();
+	
+	protected static final ExecutorService ASYNC_START_EXECUTOR =
+		Executors.newCachedThreadPool(new NamedDaemonThreadFactory("browser-container-start"));
+	// Transcoding is CPU heavy -> Don't occupy all CPUs, the tests still need them
+	protected static final ExecutorService RECORDING_POST_PROCESSING_EXECUTOR = Executors.newFixedThreadPool(
+		Math.max(1, Runtime.getRuntime().availableProcessors() / 2),
+		new NamedDaemonThreadFactory("recording-post-processing"));
 	
 	public static final int SELENIUM_PORT = 4444;
+	
+	/**
+	 * Label containing the hash of the configuration that identifies a reusable container.
+	 */
+	public static final String REUSE_HASH_LABEL = "software.xdev.testcontainers.selenium.reuse-hash";
+	protected static final Pattern RANDOM_NETWORK_ALIAS = Pattern.compile("tc-[A-Za-z0-9]{8}");
 	public static final int VNC_PORT = 5900;
 	public static final int NO_VNC_PORT = 7900;
 	
@@ -94,12 +143,55 @@ public class BrowserWebDriverContainer<SELF extends BrowserWebDriverContainer<SE
 	
 	protected static final String TC_TEMP_DIR_PREFIX = "tc";
 	
+	/**
+	 * Size of <code>/dev/shm</code> per session when it can't be mounted directly from the host.
+	 */
+	public static final long DEFAULT_SHM_SIZE_PER_SESSION = 520_000_000L;
+	protected static final String SHM_PATH = "/dev/shm";
+	protected static final double SHM_USAGE_WARN_RATIO = 0.8;
+	protected static final Pattern WHITESPACES = Pattern.compile("\\s+");
+	
 	protected static Boolean currentOsWindows; // You should use the method instead, this might be NULL
 	
 	protected boolean mapTimezoneIntoContainer;
 	
+	protected boolean startupWaitForLogMessage;
+	protected boolean startupWaitForPorts;
+	protected StartupRetryPolicy startupRetryPolicy = StartupRetryPolicy.defaults();
+	protected final List<StartupAttempt> startupAttemptHistory = new CopyOnWriteArrayList<>();
+	
 	protected boolean validateImageEnabled = true;
 	protected Duration validateImageGetTimeout = Duration.ofMinutes(5);
+	protected boolean validateImageProbeTagsInParallel;
+	protected ImageTagProbe imageTagProbe = DEFAULT_IMAGE_TAG_PROBE;
+	protected ImageTranslationCache imageTranslationCache;
+	
+	protected Network reuseNetwork = ReusableNetwork.getDefault();
+	protected PooledNetworkManager networkManager;
+	protected PooledNetworkManager.Lease networkLease;
+	// Captured on the thread that requested an async start
+	protected Object networkWorkerKey;
+	
+	protected LifecycleMetricsListener metricsListener = LifecycleMetricsListener.NOOP;
+	// Phase that was started during doStart but not yet completed
+	protected LifecyclePhase pendingMetricsPhase;
+	protected long pendingMetricsPhaseStartNanos;
+	
+	// Sessions
+	protected int maxSessions = 1;
+	protected Duration sessionTimeout;
+	protected Semaphore sessionPermits = new Semaphore(1, true);
+	
+	// Resources
+	protected ResourceLimits resourceLimits;
+	protected CpusetAllocator cpusetAllocator;
+	protected int pinnedCpus;
+	protected CpusetAllocator.Allocation cpusetAllocation;
+	
+	// Shared memory
+	protected ShmSizingPolicy shmSizingPolicy;
+	protected boolean reportShmUsage;
+	protected ShmUsage lastShmUsage;
 	
 	// VNC
 	protected boolean disableVNC = true;
@@ -111,6 +203,14 @@ public class BrowserWebDriverContainer<SELF extends BrowserWebDriverContainer<SE
 	protected RecordingContainer<?> recordingContainer;
 	
 	protected boolean startRecordingContainerManually;
+	protected boolean startRecordingContainerEarly;
+	protected Duration displayReachableTimeout = Duration.ofSeconds(60);
+	protected CompletableFuture<Void> recordingContainerStart;
+	
+	// Written by the caller of startAsync; Read by the threads that await the start
+	protected final AtomicReference<CompletableFuture<SELF>> asyncStart = new AtomicReference<>();
+	// Only accessed by the thread that executes the async start
+	protected boolean startingAsync;
 	
 	protected RecordingMode recordingMode = RecordingMode.SKIP;
 	protected Path recordingDirectory;
@@ -118,6 +218,17 @@ public class BrowserWebDriverContainer<SELF extends BrowserWebDriverContainer<SE
 	protected Duration recordingSaveTimeout = Duration.ofMinutes(3);
 	// Ensure that the current frame will be fully recorded (default record FPS = 15 -> 67ms per Frame + some buffer)
 	protected Duration beforeRecordingSaveWaitTime = Duration.ofMillis(100);
+	protected BackgroundRecordingSaver backgroundRecordingSaver;
+	protected final Set<CompletableFuture<RecordingSaveResult>> pendingRecordingSaves =
+		ConcurrentHashMap.newKeySet();
+	protected RecordingPostProcessor recordingPostProcessor;
+	protected final Set<CompletableFuture<PostProcessingResult>> pendingPostProcessing =
+		ConcurrentHashMap.newKeySet();
+	protected boolean discardPassedRecordings = true;
+	protected boolean pauseRecordingBetweenTests;
+	protected final ReentrantLock recordingPauseLock = new ReentrantLock();
+	// Multiple tests can run at the same time when there are multiple sessions
+	protected final AtomicInteger runningTestCount = new AtomicInteger();
 	
 	public BrowserWebDriverContainer(final String dockerImageName)
 	{
@@ -132,10 +243,20 @@ public class BrowserWebDriverContainer<SELF extends BrowserWebDriverContainer<SE
 	
 	protected WaitStrategy getDefaultWaitStrategy()
 	{
-		return new WaitAllStrategy()
-			.withStrategy(new LogMessageWaitStrategy()
-				.withRegEx(LOG_MSG_WAIT_STRATEGY_REGEX))
-			.withStrategy(new HostPortWaitStrategy())
+		final WaitAllStrategy strategy = new WaitAllStrategy();
+		if(this.startupWaitForLogMessage)
+		{
+			strategy.withStrategy(new LogMessageWaitStrategy()
+				.withRegEx(LOG_MSG_WAIT_STRATEGY_REGEX));
+		}
+		if(this.startupWaitForPorts)
+		{
+			strategy.withStrategy(new HostPortWaitStrategy());
+		}
+		// The port is resolved lazily as subclasses may override getSeleniumPort and this is called by the constructor
+		return strategy
+			.withStrategy(new SeleniumStatusWaitStrategy()
+				.withPort(this::getSeleniumPort))
 			.withStartupTimeout(Duration.of(60, ChronoUnit.SECONDS));
 	}
 	
@@ -158,6 +279,138 @@ public class BrowserWebDriverContainer<SELF extends BrowserWebDriverContainer<SE
 		return this.self();
 	}
 	
+	/**
+	 * @param validateImageProbeTagsInParallel Check at once which alternative tags exist (without pulling them)
+	 *                                         instead of pulling one after another. Only the most specific
+	 *                                         existing tag is pulled.
+	 * @see ImageTagProbe
+	 */
+	public SELF withValidateImageProbeTagsInParallel(final boolean validateImageProbeTagsInParallel)
+	{
+		this.validateImageProbeTagsInParallel = validateImageProbeTagsInParallel;
+		return this.self();
+	}
+	
+	public SELF withImageTagProbe(final ImageTagProbe imageTagProbe)
+	{
+		this.imageTagProbe = Objects.requireNonNull(imageTagProbe);
+		return this.self();
+	}
+	
+	/**
+	 * @param imageTranslationCache Persistent cache that is checked before an image is validated, e.g.
+	 *                              {@link FileImageTranslationCache}. Disabled (<code>null</code>) by default.
+	 */
+	public SELF withImageTranslationCache(final ImageTranslationCache imageTranslationCache)
+	{
+		this.imageTranslationCache = imageTranslationCache;
+		return this.self();
+	}
+	
+	/**
+	 * Additionally wait for the startup log message of Selenium.
+	 * <p>
+	 * Replaces the current wait strategy with the default one.
+	 * </p>
+	 */
+	public SELF withStartupWaitForLogMessage(final boolean startupWaitForLogMessage)
+	{
+		this.startupWaitForLogMessage = startupWaitForLogMessage;
+		this.waitStrategy = this.getDefaultWaitStrategy();
+		return this.self();
+	}
+	
+	/**
+	 * Additionally wait until all exposed ports are listening.
+	 * <p>
+	 * Replaces the current wait strategy with the default one.
+	 * </p>
+	 */
+	public SELF withStartupWaitForPorts(final boolean startupWaitForPorts)
+	{
+		this.startupWaitForPorts = startupWaitForPorts;
+		this.waitStrategy = this.getDefaultWaitStrategy();
+		return this.self();
+	}
+	
+	/**
+	 * @param startupRetryPolicy Decides which failed startups are retried; Replaces
+	 *                           {@link #withStartupAttempts(int)}
+	 */
+	public SELF withStartupRetryPolicy(final StartupRetryPolicy startupRetryPolicy)
+	{
+		this.startupRetryPolicy = Objects.requireNonNull(startupRetryPolicy);
+		return this.self();
+	}
+	
+	/**
+	 * @param metricsListener Receives the duration of the lifecycle phases of this container and its recorder
+	 */
+	public SELF withMetricsListener(final LifecycleMetricsListener metricsListener)
+	{
+		this.metricsListener = Objects.requireNonNull(metricsListener);
+		return this.self();
+	}
+	
+	// region Resources
+	
+	/**
+	 * @param resourceLimits CPU and memory limits of the browser container
+	 */
+	public SELF withResourceLimits(final ResourceLimits resourceLimits)
+	{
+		if(this.resourceLimits == null)
+		{
+			this.withCreateContainerCmdModifier(cmd -> this.applyResourceLimits(cmd.getHostConfig()));
+		}
+		this.resourceLimits = Objects.requireNonNull(resourceLimits);
+		return this.self();
+	}
+	
+	/**
+	 * Pins the browser and its recorder to dedicated CPUs, which are allocated when the container is started and
+	 * released when it's stopped.
+	 *
+	 * @param cpusetAllocator Allocates the CPUs, e.g. {@link CpusetAllocator#getDefault()}
+	 * @param cpus            Amount of CPUs for the browser and the recorder together
+	 */
+	public SELF withCpuPinning(final CpusetAllocator cpusetAllocator, final int cpus)
+	{
+		this.cpusetAllocator = Objects.requireNonNull(cpusetAllocator);
+		this.pinnedCpus = cpus;
+		return this.withResourceLimits(this.getResourceLimits());
+	}
+	
+	public ResourceLimits getResourceLimits()
+	{
+		return this.resourceLimits != null ? this.resourceLimits : ResourceLimits.none();
+	}
+	// endregion
+	
+	// region Shared memory
+	
+	/**
+	 * @param shmSizingPolicy Computes the size of <code>/dev/shm</code> for this container instead of mounting the
+	 *                        one of the host. <code>null</code> restores the default behavior.<br/>
+	 *                        Ignored when the size is set explicitly using {@link #withSharedMemorySize(Long)}.
+	 */
+	public SELF withShmSizingPolicy(final ShmSizingPolicy shmSizingPolicy)
+	{
+		this.shmSizingPolicy = shmSizingPolicy;
+		return this.self();
+	}
+	
+	/**
+	 * @param reportShmUsage Determine the usage of <code>/dev/shm</code> after each test
+	 * @see #getLastShmUsage()
+	 */
+	public SELF withReportShmUsage(final boolean reportShmUsage)
+	{
+		this.reportShmUsage = reportShmUsage;
+		return this.self();
+	}
+	// endregion
+	
 	// region VNC
 	public SELF withDisableVNC(final boolean disableVNC)
 	{
@@ -178,6 +431,56 @@ public class BrowserWebDriverContainer<SELF extends BrowserWebDriverContainer<SE
 	}
 	// endregion
 	
+	/**
+	 * @param reuseNetwork The network that is used instead of {@link Network#SHARED} when the container is reused.
+	 *                     It must have a stable id across runs, otherwise the container can't be reused.
+	 */
+	public SELF withReuseNetwork(final Network reuseNetwork)
+	{
+		this.reuseNetwork = reuseNetwork;
+		return this.self();
+	}
+	
+	/**
+	 * @param networkManager Provides the network for the browser and the recorder instead of
+	 *                       {@link Network#SHARED}. The network is returned when the container is stopped.<br/>
+	 *                       Only used when no network is set explicitly and the container is not reused.
+	 */
+	public SELF withNetworkManager(final PooledNetworkManager networkManager)
+	{
+		this.networkManager = networkManager;
+		return this.self();
+	}
+	
+	// region Sessions
+	
+	/**
+	 * @param maxSessions The amount of WebDriver sessions that the container can serve concurrently.<br/>
+	 *                    This way parallel tests can share a single container. Use {@link #leaseSession()} to not
+	 *                    exceed the limit.<br/>
+	 *                    Note that all sessions share the same display, so a recording shows all of them.
+	 */
+	public SELF withMaxSessions(final int maxSessions)
+	{
+		if(maxSessions < 1)
+		{
+			throw new IllegalArgumentException("maxSessions must be at least 1");
+		}
+		this.maxSessions = maxSessions;
+		this.sessionPermits = new Semaphore(maxSessions, true);
+		return this.self();
+	}
+	
+	/**
+	 * @param sessionTimeout Sessions that received no command for this duration are deleted by Selenium
+	 */
+	public SELF withSessionTimeout(final Duration sessionTimeout)
+	{
+		this.sessionTimeout = sessionTimeout;
+		return this.self();
+	}
+	// endregion
+	
 	// region Recording
 	public SELF withRecordingContainerSupplier(final Function<SELF, RecordingContainer<?>> recordingContainerSupplier)
 	{
@@ -191,6 +494,27 @@ public class BrowserWebDriverContainer<SELF extends BrowserWebDriverContainer<SE
 		return this.self();
 	}
 	
+	/**
+	 * @param startRecordingContainerEarly Start the recording container as soon as the display of the browser
+	 *                                     container is reachable and not after it's fully started. The recorder
+	 *                                     then starts up while the browser is still starting.<br/>
+	 *                                     Always enabled when using {@link #startAsync()}.
+	 */
+	public SELF withStartRecordingContainerEarly(final boolean startRecordingContainerEarly)
+	{
+		this.startRecordingContainerEarly = startRecordingContainerEarly;
+		return this.self();
+	}
+	
+	/**
+	 * @param displayReachableTimeout How long an early started recorder waits for the display of the browser
+	 */
+	public SELF withDisplayReachableTimeout(final Duration displayReachableTimeout)
+	{
+		this.displayReachableTimeout = displayReachableTimeout;
+		return this.self();
+	}
+	
 	public SELF withRecordingMode(final RecordingMode recordingMode)
 	{
 		this.recordingMode = recordingMode;
@@ -221,6 +545,62 @@ public class BrowserWebDriverContainer<SELF extends BrowserWebDriverContainer<SE
 		return this.self();
 	}
 	
+	/**
+	 * @param backgroundRecordingSaver Saves the recordings in the background, so that the next test can start right
+	 *                                 away. <code>null</code> saves the recording on the test thread (default).
+	 * @see #flushRecordings()
+	 */
+	public SELF withBackgroundRecordingSaver(final BackgroundRecordingSaver backgroundRecordingSaver)
+	{
+		this.backgroundRecordingSaver = backgroundRecordingSaver;
+		return this.self();
+	}
+	
+	public SELF withSaveRecordingsInBackground(final boolean saveRecordingsInBackground)
+	{
+		return this.withBackgroundRecordingSaver(saveRecordingsInBackground
+			? BackgroundRecordingSaver.getDefault()
+			: null);
+	}
+	
+	/**
+	 * @param recordingPostProcessor Processes saved recordings in the background (e.g.
+	 *                               {@link FfmpegRecordingPostProcessor}); <code>null</code> = disabled (default)
+	 * @see #flushPostProcessing()
+	 */
+	public SELF withRecordingPostProcessor(final RecordingPostProcessor recordingPostProcessor)
+	{
+		this.recordingPostProcessor = recordingPostProcessor;
+		return this.self();
+	}
+	
+	/**
+	 * @param discardPassedRecordings Discard the recording of a test that is not retained (e.g. a passed test in
+	 *                                {@link RecordingMode#RECORD_FAILING}), so that the next recording only contains
+	 *                                the next test. Only has an effect if the recorder
+	 *                                {@link RecordingContainer#supportsMultipleRecordings() supports multiple
+	 *                                recordings}. Nothing is discarded while other tests are still running on the
+	 *                                container (see {@link #withMaxSessions(int)}).
+	 */
+	public SELF withDiscardPassedRecordings(final boolean discardPassedRecordings)
+	{
+		this.discardPassedRecordings = discardPassedRecordings;
+		return this.self();
+	}
+	
+	/**
+	 * @param pauseRecordingBetweenTests Pause the recorder after a test and resume it when the next test starts, so
+	 *                                   that no CPU is spent on encoding the time between tests.<br/>
+	 *                                   Requires that {@link #beforeTest(TestDescription)} is called for every test
+	 *                                   (this is done automatically by the Testcontainers JUnit integration).
+	 *                                   The recorder is only paused once no test is running.
+	 */
+	public SELF withPauseRecordingBetweenTests(final boolean pauseRecordingBetweenTests)
+	{
+		this.pauseRecordingBetweenTests = pauseRecordingBetweenTests;
+		return this.self();
+	}
+	
 	// endregion
 	
 	// endregion
@@ -228,23 +608,79 @@ public class BrowserWebDriverContainer<SELF extends BrowserWebDriverContainer<SE
 	@Override
 	protected void configure()
 	{
+		this.allocateCpusetIfRequired();
 		this.configureRecording();
 		this.configureTimezone();
 		
 		this.setCommand("/opt/bin/entry_point.sh");
 		
+		this.configureSessions();
 		this.configureShm();
 		
-		/*
-		 * Some unreliability of the selenium browser containers has been observed, so allow multiple attempts to
-		 * start.
-		 */
-		this.setStartupAttempts(3);
+		// Retries are done in doStart based on the StartupRetryPolicy
+		this.setStartupAttempts(1);
 		
-		this.addExposedPorts(SELENIUM_PORT);
+		this.addExposedPorts(this.getSeleniumPort());
 		this.configureVNC();
 		
-		this.validateImage();
+		if(this.validateImageEnabled)
+		{
+			this.timePhase(LifecyclePhase.IMAGE_VALIDATION, this::validateImage);
+		}
+		
+		// After the validation, so that the identity contains the image that is actually used
+		if(this.isReuseEnabled())
+		{
+			this.configureReuse();
+		}
+		
+		// Testcontainers creates the container right after configuring it
+		this.beginMetricsPhase(LifecyclePhase.CONTAINER_CREATE);
+	}
+	
+	protected void allocateCpusetIfRequired()
+	{
+		// configure is executed once per startup attempt
+		if(this.cpusetAllocator == null || this.cpusetAllocation != null)
+		{
+			return;
+		}
+		this.cpusetAllocation = this.cpusetAllocator.allocate(this.pinnedCpus).orElse(null);
+		if(this.cpusetAllocation == null)
+		{
+			LOG.warn("No {} CPUs are free for pinning; Starting without pinning", this.pinnedCpus);
+			return;
+		}
+		
+		if(this.recordingContainer != null)
+		{
+			// Created in advance by startAsync
+			this.pinRecordingContainer(this.recordingContainer);
+		}
+	}
+	
+	protected void applyResourceLimits(final HostConfig hostConfig)
+	{
+		ResourceLimits limits = this.getResourceLimits();
+		if(this.cpusetAllocation != null)
+		{
+			limits = limits.withCpusetCpus(this.cpusetAllocation.getCpuset());
+		}
+		limits.applyTo(hostConfig);
+	}
+	
+	protected void pinRecordingContainer(final RecordingContainer<?> recorder)
+	{
+		recorder.withResourceLimits(recorder.getResourceLimits().withCpusetCpus(this.cpusetAllocation.getCpuset()));
+	}
+	
+	protected void releaseCpusetAllocation()
+	{
+		if(this.cpusetAllocation != null)
+		{
+			this.cpusetAllocation.close();
+			this.cpusetAllocation = null;
+		}
 	}
 	
 	@SuppressWarnings("java:S5443") // False positive, Files#createTempDirectory is safe and sets 700
@@ -268,13 +704,78 @@ public class BrowserWebDriverContainer<SELF extends BrowserWebDriverContainer<SE
 			}
 		}
 		
+		this.createRecordingContainerIfRequired();
+		
 		// Recorder + Browser container must be able to communicate
-		if(this.getNetwork() == null)
+		if(this.getNetwork() == null
+			&& this.recordingContainer != null
+			&& this.recordingContainer.runsInContainer())
 		{
-			this.withNetwork(Network.SHARED);
+			this.withNetwork(this.getDefaultNetwork());
 		}
-		
-		this.recordingContainer = this.recordingContainerSupplier.apply(this.self());
+	}
+	
+	protected Network getDefaultNetwork()
+	{
+		if(this.isReuseEnabled())
+		{
+			// The shared network is different in each run and would prevent reuse
+			return this.reuseNetwork;
+		}
+		if(this.networkManager != null)
+		{
+			this.networkLease = this.networkManager.acquire(this.networkWorkerKey != null
+				? this.networkWorkerKey
+				: this.networkManager.currentWorkerKey());
+			return this.networkLease.getNetwork();
+		}
+		return Network.SHARED;
+	}
+	
+	protected void releaseNetworkLease()
+	{
+		if(this.networkLease != null)
+		{
+			// Acquired again on the next start
+			this.withNetwork(null);
+			this.networkLease.close();
+			this.networkLease = null;
+		}
+	}
+	
+	/**
+	 * Releases everything that was acquired for the start, after the last startup attempt failed.
+	 */
+	protected void releaseStartupResources()
+	{
+		// Otherwise the recorder might be started after it was stopped
+		this.awaitEarlyRecordingContainerStart();
+		this.stopRecordingContainer();
+		this.releaseNetworkLease();
+		this.releaseCpusetAllocation();
+	}
+	
+	protected void createRecordingContainerIfRequired()
+	{
+		if(this.recordingMode != RecordingMode.SKIP && this.recordingContainer == null)
+		{
+			this.recordingContainer = this.createRecordingContainer();
+		}
+	}
+	
+	protected RecordingContainer<?> createRecordingContainer()
+	{
+		final RecordingContainer<?> recorder = this.recordingContainerSupplier.apply(this.self());
+		if(recorder != null && this.cpusetAllocation != null)
+		{
+			this.pinRecordingContainer(recorder);
+		}
+		if(recorder != null && this.metricsListener != LifecycleMetricsListener.NOOP)
+		{
+			recorder.withMetricsListener(this.metricsListener)
+				.withMetricsBrowser(this.getBrowserName());
+		}
+		return recorder;
 	}
 	
 	protected void configureTimezone()
@@ -290,22 +791,146 @@ public class BrowserWebDriverContainer<SELF extends BrowserWebDriverContainer<SE
 		}
 	}
 	
-	@SuppressWarnings("checkstyle:MagicNumber")
+	protected void configureSessions()
+	{
+		if(this.maxSessions > 1)
+		{
+			this.addEnv("SE_NODE_MAX_SESSIONS", String.valueOf(this.maxSessions));
+			// Otherwise Selenium limits the sessions to the amount of available processors
+			this.addEnv("SE_NODE_OVERRIDE_MAX_SESSIONS", "true");
+		}
+		if(this.sessionTimeout != null)
+		{
+			this.addEnv("SE_NODE_SESSION_TIMEOUT", String.valueOf(this.sessionTimeout.toSeconds()));
+		}
+	}
+	
 	protected void configureShm()
 	{
 		if(this.getShmSize() == null)
 		{
-			if(this.shouldDirectMountShm())
+			if(this.shmSizingPolicy != null)
 			{
-				this.getBinds().add(new Bind("/dev/shm", new Volume("/dev/shm"), AccessMode.rw));
+				this.withSharedMemorySize(this.shmSizingPolicy.computeShmSize(this.createShmSizingContext()));
+			}
+			else if(this.shouldDirectMountShm())
+			{
+				// configure is executed once per startup attempt
+				if(this.getBinds().stream().noneMatch(bind -> SHM_PATH.equals(bind.getVolume().getPath())))
+				{
+					this.getBinds().add(new Bind(SHM_PATH, new Volume(SHM_PATH), AccessMode.rw));
+				}
 			}
 			else
 			{
-				this.withSharedMemorySize(520_000_000L);
+				// Every browser instance requires its own shared memory
+				this.withSharedMemorySize(DEFAULT_SHM_SIZE_PER_SESSION * this.maxSessions);
+			}
+		}
+	}
+	
+	protected ShmSizingContext createShmSizingContext()
+	{
+		return new ShmSizingContext(this.getBrowserName(), this.isHeadless(), this.maxSessions);
+	}
+	
+	/**
+	 * @return <code>true</code> if the browser runs without a display (X server is not started)
+	 */
+	protected boolean isHeadless()
+	{
+		return "false".equalsIgnoreCase(this.getEnvMap().get("SE_START_XVFB"));
+	}
+	
+	/**
+	 * @return the browser of this container, derived from the image; e.g. <code>chrome</code>
+	 */
+	protected String getBrowserName()
+	{
+		return LifecycleMetrics.browserOf(LifecycleMetrics.imageOf(this));
+	}
+	
+	/**
+	 * Determines the current usage of <code>/dev/shm</code> inside the container.
+	 */
+	public Optional<ShmUsage> fetchShmUsage()
+	{
+		try
+		{
+			final ExecResult result = this.execInContainer("df", "-P", "-B1", SHM_PATH);
+			if(result.getExitCode() != 0)
+			{
+				LOG.debug("Failed to determine shm usage: {}", result.getStderr());
+				return Optional.empty();
 			}
+			return parseShmUsage(result.getStdout());
+		}
+		catch(final IOException ex)
+		{
+			LOG.debug("Failed to determine shm usage", ex);
+			return Optional.empty();
+		}
+		catch(final InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Got interrupted", e);
 		}
 	}
 	
+	/**
+	 * Parses the POSIX output of <code>df</code>:
+	 * <pre>
+	 * Filesystem 1-blocks Used Available Capacity Mounted on
+	 * shm        67108864 4096  67104768       1% /dev/shm
+	 * </pre>
+	 */
+	static Optional<ShmUsage> parseShmUsage(final String dfOutput)
+	{
+		return dfOutput.lines()
+			.skip(1)
+			.map(line -> WHITESPACES.split(line.trim()))
+			.filter(columns -> columns.length >= 3)
+			.findFirst()
+			.flatMap(columns -> {
+				try
+				{
+					return Optional.of(new ShmUsage(Long.parseLong(columns[1]), Long.parseLong(columns[2])));
+				}
+				catch(final NumberFormatException nfe)
+				{
+					return Optional.empty();
+				}
+			});
+	}
+	
+	protected void reportShmUsage()
+	{
+		this.fetchShmUsage().ifPresent(usage -> {
+			this.lastShmUsage = usage;
+			if(usage.usedRatio() >= SHM_USAGE_WARN_RATIO)
+			{
+				LOG.warn(
+					"{} of {} bytes of {} are used; Consider increasing the size",
+					usage.usedBytes(),
+					usage.sizeBytes(),
+					SHM_PATH);
+			}
+			else
+			{
+				LOG.debug("{} of {} bytes of {} are used", usage.usedBytes(), usage.sizeBytes(), SHM_PATH);
+			}
+		});
+	}
+	
+	/**
+	 * @return the usage of <code>/dev/shm</code> after the last test; Only available if
+	 * {@link #withReportShmUsage(boolean)} is enabled
+	 */
+	public Optional<ShmUsage> getLastShmUsage()
+	{
+		return Optional.ofNullable(this.lastShmUsage);
+	}
+	
 	protected boolean shouldDirectMountShm()
 	{
 		return !isCurrentOsWindows();
@@ -340,6 +965,68 @@ public class BrowserWebDriverContainer<SELF extends BrowserWebDriverContainer<SE
 		}
 	}
 	
+	// region Reuse
+	protected boolean isReuseEnabled()
+	{
+		return this.isShouldBeReused() && TestcontainersConfiguration.getInstance().environmentSupportsReuse();
+	}
+	
+	/**
+	 * Makes the configuration stable across runs, so that Testcontainers can find the container for reuse.
+	 */
+	protected void configureReuse()
+	{
+		final String reuseHash = this.computeReuseHash();
+		this.withLabel(REUSE_HASH_LABEL, reuseHash);
+		
+		if(this.getNetwork() != null)
+		{
+			// Replace the random alias; Any of the aliases can be used by the recorder to reach the container
+			final List<String> aliases = new ArrayList<>(this.getNetworkAliases());
+			aliases.removeIf(alias -> RANDOM_NETWORK_ALIAS.matcher(alias).matches());
+			if(aliases.isEmpty())
+			{
+				aliases.add("selenium-" + reuseHash.substring(0, 12));
+			}
+			this.setNetworkAliases(aliases);
+		}
+	}
+	
+	protected String computeReuseHash()
+	{
+		try
+		{
+			final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			this.buildReuseIdentity().forEach((key, value) ->
+				digest.update((key + "=" + value + "\n").getBytes(StandardCharsets.UTF_8)));
+			return HexFormat.of().formatHex(digest.digest());
+		}
+		catch(final NoSuchAlgorithmException e)
+		{
+			// SHA-256 is always available as per javadoc
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	/**
+	 * @return everything that makes a container of this configuration interchangeable with another one
+	 */
+	protected SortedMap<String, String> buildReuseIdentity()
+	{
+		final SortedMap<String, String> identity = new TreeMap<>();
+		// Don't use getDockerImageName: It pulls the image
+		identity.put("image", LifecycleMetrics.imageOf(this));
+		identity.put("vnc.disabled", String.valueOf(this.disableVNC));
+		identity.put("vnc.exposed", String.valueOf(this.exposeVNCPort));
+		identity.put("vnc.noVnc", String.valueOf(this.enableNoVNC));
+		identity.put("timezone", String.valueOf(this.getEnvMap().get("TZ")));
+		identity.put("shm.size", String.valueOf(this.getShmSize()));
+		identity.put("shm.directMount", String.valueOf(this.getShmSize() == null && this.shouldDirectMountShm()));
+		identity.put("sessions.max", String.valueOf(this.maxSessions));
+		return identity;
+	}
+	// endregion
+	
 	// region Validate image
 	// If testcontainers could implement the same method better or made stuff protected we wouldn't need reflection
 	@SuppressWarnings("java:S3011")
@@ -363,9 +1050,7 @@ public class BrowserWebDriverContainer<SELF extends BrowserWebDriverContainer<SE
 			mGetImageName.setAccessible(true);
 			final DockerImageName currentImage = (DockerImageName)mGetImageName.invoke(remoteDockerImage);
 			
-			this.setDockerImageName(WORKING_BROWSER_IMAGES_TRANSLATION.computeIfAbsent(
-				currentImage,
-				this::validateImageOrPickAlternative));
+			this.setDockerImageName(this.getOrResolveWorkingImage(currentImage));
 		}
 		catch(final Exception ex)
 		{
@@ -373,21 +1058,59 @@ public class BrowserWebDriverContainer<SELF extends BrowserWebDriverContainer<SE
 		}
 	}
 	
-	protected String validateImageOrPickAlternative(final DockerImageName initial)
+	/**
+	 * Resolves the working image without blocking other images.
+	 * <p>
+	 * If the image is already being resolved by another container, the result of that resolution is awaited and
+	 * shared. Failed resolutions are not cached so that they are retried by the next container.
+	 * </p>
+	 */
+	protected String getOrResolveWorkingImage(final DockerImageName image)
 	{
-		RuntimeException prevEx = null;
-		
-		final List<String> versionParts = List.of(initial.getVersionPart().split("\\."));
+		final CompletableFuture<String> newResolution = new CompletableFuture<>();
+		final CompletableFuture<String> existingResolution =
+			WORKING_BROWSER_IMAGES_TRANSLATION.putIfAbsent(image, newResolution);
+		if(existingResolution != null)
+		{
+			return existingResolution.join();
+		}
 		
-		// Strategy: 1.2.3 -> 1.2 -> 1
-		final List<String> tags = new ArrayList<>(List.of(initial.getVersionPart()));
-		IntStream.range(0, versionParts.size() - 1)
-			// Reverse (start with most specific version)
-			.map(i -> versionParts.size() - 1 - i)
-			// Pick version parts
-			.mapToObj(i -> versionParts.stream().limit(i).collect(Collectors.joining(".")))
-			.forEach(tags::add);
+		try
+		{
+			newResolution.complete(this.resolveWorkingImage(image));
+		}
+		catch(final RuntimeException ex)
+		{
+			WORKING_BROWSER_IMAGES_TRANSLATION.remove(image, newResolution);
+			newResolution.completeExceptionally(ex);
+		}
+		return newResolution.join();
+	}
+	
+	protected String resolveWorkingImage(final DockerImageName initial)
+	{
+		if(this.imageTranslationCache == null)
+		{
+			return this.validateImageOrPickAlternative(initial);
+		}
+		
+		return this.imageTranslationCache.get(initial)
+			.orElseGet(() -> {
+				final String workingImage = this.validateImageOrPickAlternative(initial);
+				this.imageTranslationCache.put(initial, workingImage);
+				return workingImage;
+			});
+	}
+	
+	protected String validateImageOrPickAlternative(final DockerImageName initial)
+	{
+		List<String> tags = this.determineCandidateTags(initial);
+		if(this.validateImageProbeTagsInParallel && tags.size() > 1)
+		{
+			tags = this.filterExistingTagsInParallel(initial, tags);
+		}
 		
+		RuntimeException prevEx = null;
 		for(final String currentTag : tags)
 		{
 			try
@@ -419,6 +1142,71 @@ public class BrowserWebDriverContainer<SELF extends BrowserWebDriverContainer<SE
 		assert prevEx != null;
 		throw prevEx;
 	}
+	
+	/**
+	 * Checks at once which tags exist - without pulling them - so that only the most specific existing tag is
+	 * pulled.
+	 *
+	 * @return the tags that exist or whose existence couldn't be determined - in the original order
+	 */
+	protected List<String> filterExistingTagsInParallel(final DockerImageName initial, final List<String> tags)
+	{
+		final List<CompletableFuture<Optional<Boolean>>> probes = tags.stream()
+			.map(tag -> CompletableFuture.supplyAsync(
+				() -> this.imageTagProbe.exists(initial.withTag(tag)),
+				ASYNC_START_EXECUTOR))
+			.toList();
+		
+		for(int i = 0; i < tags.size(); i++)
+		{
+			final boolean exists = probes.get(i)
+				.exceptionally(ex -> Optional.empty())
+				.join()
+				// Unknown -> Let the pull decide
+				.orElse(true);
+			if(exists)
+			{
+				// The most specific existing tag is known -> Don't wait for the less specific ones
+				final List<String> candidateTags = new ArrayList<>(List.of(tags.get(i)));
+				for(int j = i + 1; j < tags.size(); j++)
+				{
+					// Kept as fallback unless they are already known to not exist
+					if(!Boolean.FALSE.equals(probes.get(j)
+						.exceptionally(ex -> Optional.empty())
+						.getNow(Optional.empty())
+						.orElse(null)))
+					{
+						candidateTags.add(tags.get(j));
+					}
+					probes.get(j).cancel(true);
+				}
+				return candidateTags;
+			}
+		}
+		
+		// The probe might be wrong, e.g. when the registry is mirrored
+		LOG.debug("No candidate tag of {} exists in the registry; Trying all", initial);
+		return tags;
+	}
+	
+	/**
+	 * Strategy: 1.2.3 -&gt; 1.2 -&gt; 1
+	 *
+	 * @return the tags that should be tried - ordered by preference (most specific first)
+	 */
+	protected List<String> determineCandidateTags(final DockerImageName initial)
+	{
+		final List<String> versionParts = List.of(initial.getVersionPart().split("\\."));
+		
+		final List<String> tags = new ArrayList<>(List.of(initial.getVersionPart()));
+		IntStream.range(0, versionParts.size() - 1)
+			// Reverse (start with most specific version)
+			.map(i -> versionParts.size() - 1 - i)
+			// Pick version parts
+			.mapToObj(i -> versionParts.stream().limit(i).collect(Collectors.joining(".")))
+			.forEach(tags::add);
+		return tags;
+	}
 	// endregion
 	
 	public String getVncAddress()
@@ -448,26 +1236,476 @@ public class BrowserWebDriverContainer<SELF extends BrowserWebDriverContainer<SE
 			: null;
 	}
 	
+	/**
+	 * @return the port on which Selenium listens inside the container
+	 */
+	public int getSeleniumPort()
+	{
+		return SELENIUM_PORT;
+	}
+	
 	public URI getSeleniumAddressURI()
 	{
-		return URI.create("http://" + this.getHost() + ":" + this.getMappedPort(SELENIUM_PORT) + "/wd/hub");
+		this.awaitAsyncStart();
+		return URI.create("http://" + this.getHost() + ":" + this.getMappedPort(this.getSeleniumPort()) + "/wd/hub");
+	}
+	
+	// region Sessions
+	
+	/**
+	 * Creates a client for the HTTP endpoints of Selenium inside the container.
+	 * <p>
+	 * Unlike {@link #getSeleniumAddressURI()} this doesn't wait for an {@link #startAsync() async start}, so it can
+	 * also be used while the container is starting.
+	 * </p>
+	 */
+	public SeleniumStatusClient createStatusClient()
+	{
+		return new SeleniumStatusClient(
+			URI.create("http://" + this.getHost() + ":" + this.getMappedPort(this.getSeleniumPort())));
+	}
+	
+	/**
+	 * @return the ids of the WebDriver sessions that are currently active inside the container
+	 */
+	public Set<String> getActiveSessionIds()
+	{
+		return this.createStatusClient().fetchActiveSessionIds();
+	}
+	
+	/**
+	 * Deletes all WebDriver sessions that are still active inside the container, e.g. because a test didn't quit
+	 * its driver. This way the container can be handed over to the next test in a clean state.
+	 */
+	public void deleteActiveSessions()
+	{
+		final SeleniumStatusClient statusClient = this.createStatusClient();
+		for(final String sessionId : statusClient.fetchActiveSessionIds())
+		{
+			LOG.debug("Deleting leftover session {}", sessionId);
+			statusClient.deleteSession(sessionId);
+		}
+	}
+	
+	/**
+	 * Leases one of the {@link #withMaxSessions(int) session slots} of the container; Waits until one is free.
+	 */
+	public SessionLease leaseSession()
+	{
+		try
+		{
+			this.sessionPermits.acquire();
+		}
+		catch(final InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Got interrupted", e);
+		}
+		return new SessionLease(this, this.sessionPermits);
+	}
+	
+	/**
+	 * @throws IllegalStateException if no slot got free within the timeout
+	 * @see #leaseSession()
+	 */
+	public SessionLease leaseSession(final Duration timeout)
+	{
+		try
+		{
+			if(!this.sessionPermits.tryAcquire(timeout.toMillis(), TimeUnit.MILLISECONDS))
+			{
+				throw new IllegalStateException("No free session slot within " + timeout);
+			}
+		}
+		catch(final InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Got interrupted", e);
+		}
+		return new SessionLease(this, this.sessionPermits);
+	}
+	
+	public int getAvailableSessionSlots()
+	{
+		return this.sessionPermits.availablePermits();
 	}
+	// endregion
+	
+	// region Startup retry
+	@Override
+	protected void doStart()
+	{
+		this.startupAttemptHistory.clear();
+		final long startNanos = System.nanoTime();
+		for(int attempt = 1; ; attempt++)
+		{
+			final long attemptStartNanos = System.nanoTime();
+			try
+			{
+				super.doStart();
+				this.startupAttemptHistory.add(StartupAttempt.success(attempt, since(attemptStartNanos)));
+				return;
+			}
+			catch(final RuntimeException ex)
+			{
+				this.completeMetricsPhase(false);
+				final StartupFailureReason reason = this.classifyStartupFailure(ex);
+				this.startupAttemptHistory.add(
+					StartupAttempt.failure(attempt, since(attemptStartNanos), reason, ex));
+				this.cleanUpFailedStartupAttempt();
+				
+				final Optional<Duration> optBackoff =
+					this.startupRetryPolicy.nextBackoff(attempt, reason, since(startNanos));
+				if(optBackoff.isEmpty())
+				{
+					// Giving up
+					this.releaseStartupResources();
+					throw ex;
+				}
+				
+				final Duration backoff = optBackoff.orElseThrow();
+				LOG.warn(
+					"Startup attempt {} failed ({}); Retrying in {}ms",
+					attempt,
+					reason,
+					backoff.toMillis(),
+					ex);
+				this.sleepBeforeNextStartupAttempt(backoff);
+			}
+		}
+	}
+	
+	protected StartupFailureReason classifyStartupFailure(final RuntimeException ex)
+	{
+		// Not visible in the exception; The container might already be removed if it wasn't created
+		if(this.getContainerId() != null)
+		{
+			try
+			{
+				if(Boolean.TRUE.equals(this.getDockerClient().inspectContainerCmd(this.getContainerId())
+					.exec()
+					.getState()
+					.getOOMKilled()))
+				{
+					return StartupFailureReason.SHM_OOM;
+				}
+			}
+			catch(final Exception inspectEx)
+			{
+				LOG.debug("Failed to inspect container after failed startup", inspectEx);
+			}
+		}
+		return this.startupRetryPolicy.classify(ex);
+	}
+	
+	protected void cleanUpFailedStartupAttempt()
+	{
+		try
+		{
+			// Only the container itself; The recorder is handled in containerIsStarting
+			super.stop();
+		}
+		catch(final Exception ex)
+		{
+			LOG.debug("Failed to clean up after failed startup attempt", ex);
+		}
+	}
+	
+	protected void sleepBeforeNextStartupAttempt(final Duration backoff)
+	{
+		sleep(backoff.toMillis());
+	}
+	
+	/**
+	 * @return all attempts of the last startup - including their duration and failure reason
+	 */
+	public List<StartupAttempt> getStartupAttemptHistory()
+	{
+		return List.copyOf(this.startupAttemptHistory);
+	}
+	
+	protected static Duration since(final long startNanos)
+	{
+		return Duration.ofNanos(System.nanoTime() - startNanos);
+	}
+	// endregion
+	
+	// region Metrics
+	protected Map<String, String> metricsTags()
+	{
+		return LifecycleMetrics.tags(LifecycleMetrics.imageOf(this), this.getBrowserName());
+	}
+	
+	protected void timePhase(final LifecyclePhase phase, final Runnable action)
+	{
+		LifecycleMetrics.time(this.metricsListener, phase, this::metricsTags, action);
+	}
+	
+	/**
+	 * Used for phases that are delimited by Testcontainers callbacks and can't be wrapped.
+	 */
+	protected void beginMetricsPhase(final LifecyclePhase phase)
+	{
+		this.pendingMetricsPhase = phase;
+		this.pendingMetricsPhaseStartNanos = System.nanoTime();
+	}
+	
+	protected void completeMetricsPhase(final boolean succeeded)
+	{
+		final LifecyclePhase phase = this.pendingMetricsPhase;
+		if(phase != null)
+		{
+			this.pendingMetricsPhase = null;
+			LifecycleMetrics.report(
+				this.metricsListener,
+				phase,
+				since(this.pendingMetricsPhaseStartNanos),
+				succeeded,
+				this::metricsTags);
+		}
+	}
+	// endregion
+	
+	// region Async start
+	
+	/**
+	 * Starts the container in the background.
+	 * <p>
+	 * The images of the browser and the recorder are pulled at the same time and the recorder is started as soon as
+	 * the browser container is running (see {@link #withStartRecordingContainerEarly(boolean)}).<br/>
+	 * Methods that require a started container, like {@link #getSeleniumAddressURI()}, wait until the start is
+	 * completed.
+	 * </p>
+	 *
+	 * @return a future that completes once the browser and the recorder are started
+	 */
+	public synchronized CompletableFuture<SELF> startAsync()
+	{
+		if(this.asyncStart.get() == null)
+		{
+			if(this.networkManager != null)
+			{
+				// The start is executed by another thread
+				this.networkWorkerKey = this.networkManager.currentWorkerKey();
+			}
+			
+			this.createRecordingContainerIfRequired();
+			if(this.recordingContainer != null)
+			{
+				final RecordingContainer<?> recorder = this.recordingContainer;
+				// Resolving the image name pulls the image
+				CompletableFuture.runAsync(recorder::getDockerImageName, ASYNC_START_EXECUTOR)
+					.exceptionally(ex -> {
+						LOG.debug("Failed to pull recording container image in advance", ex);
+						return null;
+					});
+			}
+			
+			this.asyncStart.set(CompletableFuture.supplyAsync(
+				() -> {
+					// Only applies to this start; A later start() uses the configuration of the user
+					this.startingAsync = true;
+					try
+					{
+						this.start();
+					}
+					finally
+					{
+						this.startingAsync = false;
+					}
+					return this.self();
+				},
+				ASYNC_START_EXECUTOR));
+		}
+		return this.asyncStart.get();
+	}
+	
+	protected void awaitAsyncStart()
+	{
+		final CompletableFuture<SELF> currentAsyncStart = this.asyncStart.get();
+		if(currentAsyncStart != null && !currentAsyncStart.isDone())
+		{
+			join(currentAsyncStart);
+		}
+	}
+	
+	@SuppressWarnings("PMD.PreserveStackTrace") // Unwrapping is intended, the cause contains the relevant trace
+	protected static <T> T join(final CompletableFuture<T> future)
+	{
+		try
+		{
+			return future.join();
+		}
+		catch(final CompletionException ex)
+		{
+			if(ex.getCause() instanceof final RuntimeException rex)
+			{
+				throw rex;
+			}
+			throw ex;
+		}
+	}
+	// endregion
 	
 	@Override
 	public void stop()
 	{
-		this.stopRecordingContainer();
-		super.stop();
+		this.awaitAsyncStartBeforeStop();
+		
+		this.flushRecordings();
+		this.flushPostProcessing();
+		try
+		{
+			this.stopRecordingContainer();
+			this.stopBrowserContainer();
+		}
+		finally
+		{
+			this.releaseStopResources();
+		}
+	}
+	
+	/**
+	 * Like {@link #stop()} but the recorder and the browser container are stopped at the same time.
+	 *
+	 * @param executor Executes the individual steps
+	 * @return the results of the recordings that were still pending when stopping
+	 * @see BrowserContainerGroup
+	 */
+	public CompletableFuture<List<RecordingSaveResult>> stopAsync(final Executor executor)
+	{
+		return CompletableFuture.supplyAsync(
+				() -> {
+					this.awaitAsyncStartBeforeStop();
+					final List<RecordingSaveResult> flushedRecordings = this.flushRecordings();
+					this.flushPostProcessing();
+					return flushedRecordings;
+				},
+				executor)
+			.thenCompose(flushedRecordings -> CompletableFuture.allOf(
+					CompletableFuture.runAsync(this::stopRecordingContainer, executor),
+					CompletableFuture.runAsync(this::stopBrowserContainer, executor))
+				// The network can only be removed once no container is attached to it
+				.whenComplete((v, ex) -> this.releaseStopResources())
+				.thenApply(v -> flushedRecordings));
+	}
+	
+	protected void awaitAsyncStartBeforeStop()
+	{
+		final CompletableFuture<SELF> currentAsyncStart = this.asyncStart.getAndSet(null);
+		if(currentAsyncStart != null)
+		{
+			// Ensure that nothing is started after stopping
+			currentAsyncStart.exceptionally(ex -> null).join();
+		}
+	}
+	
+	/**
+	 * Stops only the browser container - without the recorder.
+	 */
+	protected void stopBrowserContainer()
+	{
+		if(this.getContainerId() == null)
+		{
+			super.stop();
+			return;
+		}
+		this.timePhase(LifecyclePhase.CONTAINER_STOP, super::stop);
+	}
+	
+	protected void releaseStopResources()
+	{
+		this.releaseNetworkLease();
+		this.networkWorkerKey = null;
+		this.releaseCpusetAllocation();
 	}
 	
 	// region Recording
+	@Override
+	public void beforeTest(final TestDescription description)
+	{
+		this.recordingPauseLock.lock();
+		try
+		{
+			this.runningTestCount.incrementAndGet();
+			if(this.recordingContainer != null && this.recordingContainer.isRecordingPaused())
+			{
+				this.recordingContainer.resumeRecording();
+			}
+		}
+		finally
+		{
+			this.recordingPauseLock.unlock();
+		}
+	}
+	
 	@Override
 	public void afterTest(final TestDescription description, final Optional<Throwable> throwable)
 	{
-		this.retainRecordingIfNeeded(description::getFilesystemFriendlyName, throwable.isEmpty());
+		this.recordingPauseLock.lock();
+		try
+		{
+			this.runningTestCount.updateAndGet(count -> Math.max(0, count - 1));
+		}
+		finally
+		{
+			this.recordingPauseLock.unlock();
+		}
+		
+		if(this.reportShmUsage && this.isRunning())
+		{
+			this.reportShmUsage();
+		}
+		
+		final CompletableFuture<RecordingSaveResult> save =
+			this.retainRecordingIfNeeded(() -> this.getRecordingTestName(description), throwable.isEmpty());
+		
+		if(this.pauseRecordingBetweenTests)
+		{
+			if(save != null)
+			{
+				// The recorder is still required for saving
+				save.whenComplete((result, ex) -> this.pauseRecordingIfNoTestIsRunning());
+			}
+			else
+			{
+				this.pauseRecordingIfNoTestIsRunning();
+			}
+		}
+	}
+	
+	protected String getRecordingTestName(final TestDescription description)
+	{
+		return description.getFilesystemFriendlyName();
+	}
+	
+	protected void pauseRecordingIfNoTestIsRunning()
+	{
+		this.recordingPauseLock.lock();
+		try
+		{
+			final RecordingContainer<?> recorder = this.recordingContainer;
+			if(this.runningTestCount.get() == 0 && recorder != null && recorder.isRunning())
+			{
+				recorder.pauseRecording();
+			}
+		}
+		catch(final Exception ex)
+		{
+			LOG.warn("Failed to pause recording", ex);
+		}
+		finally
+		{
+			this.recordingPauseLock.unlock();
+		}
 	}
 	
-	protected void retainRecordingIfNeeded(final Supplier<String> testNameSupplier, final boolean succeeded)
+	/**
+	 * @return the save that is executed in the background or <code>null</code> if there is none
+	 */
+	protected CompletableFuture<RecordingSaveResult> retainRecordingIfNeeded(
+		final Supplier<String> testNameSupplier,
+		final boolean succeeded)
 	{
 		// Should recording be retained?
 		if(switch(this.recordingMode)
@@ -476,10 +1714,69 @@ public class BrowserWebDriverContainer<SELF extends BrowserWebDriverContainer<SE
 			case RECORD_FAILING -> succeeded;
 			default -> true;
 		})
+		{
+			this.discardRecordingIfSupported();
+			return null;
+		}
+		
+		// Get testname only when required to improve performance
+		final String testName = testNameSupplier.get();
+		// Build the name now so that it reflects when the test finished
+		final String fileNameWithoutExtension =
+			this.testRecordingFileNameFactory.buildNameWithoutExtension(testName, succeeded);
+		final RecordingContainer<?> recorder = this.recordingContainer;
+		
+		if(this.backgroundRecordingSaver == null)
+		{
+			this.postProcessIfRequired(this.saveRecording(recorder, testName, fileNameWithoutExtension));
+			return null;
+		}
+		
+		// Completes after the post processing, so that the result points to the final recording
+		final CompletableFuture<RecordingSaveResult> save = this.backgroundRecordingSaver.submit(
+				() -> this.saveRecording(recorder, testName, fileNameWithoutExtension))
+			.thenCompose(this::postProcessIfRequired);
+		this.pendingRecordingSaves.add(save);
+		save.whenComplete((result, ex) -> this.pendingRecordingSaves.remove(save));
+		return save;
+	}
+	
+	/**
+	 * Throws away the current recording - without copying it out of the recorder - so that the recorder doesn't
+	 * accumulate video of tests that nobody will look at.
+	 */
+	protected void discardRecordingIfSupported()
+	{
+		if(this.recordingMode == RecordingMode.SKIP
+			|| !this.discardPassedRecordings
+			|| this.startRecordingContainerManually
+			// The recording also contains tests that are still running
+			|| this.runningTestCount.get() > 0)
+		{
+			return;
+		}
+		
+		final RecordingContainer<?> recorder = this.recordingContainer;
+		if(recorder == null || !recorder.isRunning() || !recorder.supportsMultipleRecordings())
 		{
 			return;
 		}
 		
+		try
+		{
+			recorder.discardRecording();
+		}
+		catch(final Exception ex)
+		{
+			LOG.warn("Failed to discard recording", ex);
+		}
+	}
+	
+	protected RecordingSaveResult saveRecording(
+		final RecordingContainer<?> recorder,
+		final String testName,
+		final String fileNameWithoutExtension)
+	{
 		if(this.beforeRecordingSaveWaitTime != null)
 		{
 			try
@@ -493,35 +1790,272 @@ public class BrowserWebDriverContainer<SELF extends BrowserWebDriverContainer<SE
 			}
 		}
 		
-		// Get testname only when required to improve performance
-		final String testName = testNameSupplier.get();
 		try
 		{
 			final Path recording = Timeouts.getWithTimeout(
 				(int)this.recordingSaveTimeout.toSeconds(),
 				TimeUnit.SECONDS,
-				() -> this.recordingContainer.saveRecordingToFile(
-					this.recordingDirectory,
-					this.testRecordingFileNameFactory.buildNameWithoutExtension(testName, succeeded))
+				() -> recorder.saveRecordingToFile(this.recordingDirectory, fileNameWithoutExtension)
 			);
 			LOG.info("Screen recordings for test {} will be stored at: {}", testName, recording);
+			return RecordingSaveResult.success(testName, recording);
 		}
 		catch(final org.rnorth.ducttape.TimeoutException te)
 		{
 			LOG.warn("Timed out while saving recording for test {}", testName, te);
+			return RecordingSaveResult.failure(testName, te);
 		}
 		catch(final Exception ex)
 		{
 			LOG.warn("Failed to save recording for test {}", testName, ex);
+			return RecordingSaveResult.failure(testName, ex);
+		}
+	}
+	
+	/**
+	 * Processes the saved recording in the background - if a {@link #withRecordingPostProcessor(RecordingPostProcessor)
+	 * post processor} is configured and supports the recording.
+	 *
+	 * @return the result pointing to the processed recording; the original result if nothing was processed or
+	 * processing failed
+	 */
+	protected CompletableFuture<RecordingSaveResult> postProcessIfRequired(final RecordingSaveResult saveResult)
+	{
+		final RecordingPostProcessor processor = this.recordingPostProcessor;
+		final Path recording = saveResult.recording();
+		if(processor == null || recording == null || !processor.supports(recording))
+		{
+			return CompletableFuture.completedFuture(saveResult);
+		}
+		
+		final CompletableFuture<PostProcessingResult> postProcessing = CompletableFuture.supplyAsync(
+			() -> processor.process(recording),
+			RECORDING_POST_PROCESSING_EXECUTOR);
+		this.pendingPostProcessing.add(postProcessing);
+		return postProcessing.handle((result, ex) -> {
+			this.pendingPostProcessing.remove(postProcessing);
+			if(ex != null)
+			{
+				LOG.warn("Failed to post process recording {}", recording, ex);
+				return saveResult;
+			}
+			LOG.info(
+				"Post processed recording {} -> {} ({} -> {} bytes, ratio {}) in {}ms",
+				result.input(),
+				result.output(),
+				result.inputBytes(),
+				result.outputBytes(),
+				String.format("%.1f", result.compressionRatio()),
+				result.duration().toMillis());
+			return RecordingSaveResult.success(saveResult.testName(), result.output());
+		});
+	}
+	
+	/**
+	 * Waits until all recordings of this container that are post processed in the background are completed.
+	 *
+	 * @return the results of the successfully post processed recordings
+	 */
+	public List<PostProcessingResult> flushPostProcessing()
+	{
+		return awaitAll(this.pendingPostProcessing, this.recordingSaveTimeout, "recording to be post processed");
+	}
+	
+	/**
+	 * Waits for all futures using a single deadline, so that they are awaited in parallel.
+	 *
+	 * @return the results of the futures that completed successfully in time
+	 */
+	protected static <T> List<T> awaitAll(
+		final Set<CompletableFuture<T>> pending,
+		final Duration timeout,
+		final String awaitedDescription)
+	{
+		final List<CompletableFuture<T>> futures = List.copyOf(pending);
+		if(futures.isEmpty())
+		{
+			return List.of();
+		}
+		
+		final long deadlineNanos = System.nanoTime() + timeout.toNanos();
+		final List<T> results = new ArrayList<>(futures.size());
+		for(final CompletableFuture<T> future : futures)
+		{
+			try
+			{
+				results.add(future.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS));
+			}
+			catch(final InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Got interrupted", e);
+			}
+			catch(final ExecutionException | TimeoutException ex)
+			{
+				LOG.warn("Failed to wait for {}", awaitedDescription, ex);
+			}
+		}
+		return results;
+	}
+	
+	/**
+	 * Waits until all recordings of this container that are saved in the background are completed.
+	 *
+	 * @return the results of the awaited saves
+	 */
+	public List<RecordingSaveResult> flushRecordings()
+	{
+		return awaitAll(this.pendingRecordingSaves, this.recordingSaveTimeout, "recording to be saved");
+	}
+	
+	@Override
+	protected void containerIsStarting(final InspectContainerResponse containerInfo, final boolean reused)
+	{
+		if(reused)
+		{
+			// Nothing was created
+			this.pendingMetricsPhase = null;
+		}
+		this.completeMetricsPhase(true);
+		this.beginMetricsPhase(LifecyclePhase.WAIT_FOR_READY);
+		
+		if(!(this.startRecordingContainerEarly || this.startingAsync) || this.startRecordingContainerManually)
+		{
+			return;
+		}
+		
+		if(this.recordingContainerStart != null)
+		{
+			// A previous start attempt failed -> The recorder targets a container that no longer exists
+			this.awaitEarlyRecordingContainerStart();
+			this.stopRecordingContainer();
+		}
+		this.createRecordingContainerIfRequired();
+		
+		if(this.recordingContainer != null)
+		{
+			this.recordingContainerStart = CompletableFuture.runAsync(
+				() -> {
+					this.awaitDisplayReachable();
+					this.startRecordingContainer();
+				},
+				ASYNC_START_EXECUTOR);
 		}
 	}
 	
 	@Override
 	protected void containerIsStarted(final InspectContainerResponse containerInfo, final boolean reused)
 	{
-		if(!this.startRecordingContainerManually)
+		this.completeMetricsPhase(true);
+		
+		if(reused)
+		{
+			this.deleteSessionsOfReusedContainer();
+		}
+		
+		if(this.startRecordingContainerManually)
+		{
+			return;
+		}
+		
+		if(this.recordingContainerStart != null)
+		{
+			try
+			{
+				join(this.recordingContainerStart);
+			}
+			finally
+			{
+				this.recordingContainerStart = null;
+			}
+			return;
+		}
+		this.startRecordingContainer();
+	}
+	
+	/**
+	 * Waits - ignoring failures - until the recorder that was started early is started.
+	 */
+	protected void awaitEarlyRecordingContainerStart()
+	{
+		final CompletableFuture<Void> currentRecordingContainerStart = this.recordingContainerStart;
+		if(currentRecordingContainerStart != null)
+		{
+			currentRecordingContainerStart.exceptionally(ex -> null).join();
+			this.recordingContainerStart = null;
+		}
+	}
+	
+	/**
+	 * Waits until the X display of the browser accepts connections, so that the recorder can connect right away.
+	 * <p>
+	 * The display is available long before Selenium is ready.
+	 * </p>
+	 */
+	protected void awaitDisplayReachable()
+	{
+		if(this.isHeadless())
+		{
+			return;
+		}
+		
+		final long deadlineNanos = System.nanoTime() + this.displayReachableTimeout.toNanos();
+		long pollIntervalMs = 50;
+		while(System.nanoTime() < deadlineNanos && this.isRunning())
+		{
+			if(this.isDisplayReachable())
+			{
+				return;
+			}
+			sleep(pollIntervalMs);
+			pollIntervalMs = Math.min(pollIntervalMs * 2, 500);
+		}
+		LOG.warn("Display of browser container was not reachable in time; Starting the recorder anyway");
+	}
+	
+	protected boolean isDisplayReachable()
+	{
+		try
+		{
+			return this.execInContainer(
+				"bash",
+				"-c",
+				"exec 3<>/dev/tcp/127.0.0.1/" + SeleniumRecordingContainer.DISPLAY_PORT).getExitCode() == 0;
+		}
+		catch(final IOException ex)
+		{
+			LOG.debug("Failed to check if display is reachable", ex);
+			return false;
+		}
+		catch(final InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Got interrupted", e);
+		}
+	}
+	
+	protected static void sleep(final long millis)
+	{
+		try
+		{
+			Thread.sleep(millis);
+		}
+		catch(final InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Got interrupted", e);
+		}
+	}
+	
+	protected void deleteSessionsOfReusedContainer()
+	{
+		try
+		{
+			this.deleteActiveSessions();
+		}
+		catch(final Exception ex)
 		{
-			this.startRecordingContainer();
+			LOG.warn("Failed to delete sessions of reused container", ex);
 		}
 	}
 	
@@ -533,6 +2067,36 @@ public class BrowserWebDriverContainer<SELF extends BrowserWebDriverContainer<SE
 		}
 	}
 	
+	/**
+	 * Ensures that the next recording only contains what happens from now on.
+	 * <p>
+	 * If the recorder supports multiple recordings the current recording is discarded, otherwise the recording
+	 * container is replaced with a fresh one.
+	 * </p>
+	 */
+	public void restartRecordingContainer()
+	{
+		if(this.recordingMode == RecordingMode.SKIP || this.startRecordingContainerManually)
+		{
+			return;
+		}
+		
+		// Saves in the background still need the current recorder
+		this.flushRecordings();
+		
+		if(this.recordingContainer != null
+			&& this.recordingContainer.isRunning()
+			&& this.recordingContainer.supportsMultipleRecordings())
+		{
+			this.recordingContainer.discardRecording();
+			return;
+		}
+		
+		this.stopRecordingContainer();
+		this.recordingContainer = this.createRecordingContainer();
+		this.startRecordingContainer();
+	}
+	
 	protected void stopRecordingContainer()
 	{
 		if(this.recordingContainer != null)
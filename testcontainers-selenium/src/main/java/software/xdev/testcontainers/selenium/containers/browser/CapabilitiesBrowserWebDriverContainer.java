@@ -15,9 +15,12 @@
  */
 package software.xdev.testcontainers.selenium.containers.browser;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 import org.openqa.selenium.Capabilities;
 import org.testcontainers.utility.DockerImageName;
@@ -35,6 +38,8 @@ public class CapabilitiesBrowserWebDriverContainer<SELF extends CapabilitiesBrow
 		BrowserType.FIREFOX, FIREFOX_IMAGE,
 		BrowserType.EDGE, EDGE_IMAGE));
 	
+	protected Capabilities capabilities;
+	
 	public CapabilitiesBrowserWebDriverContainer(final Capabilities capabilities)
 	{
 		this(capabilities, BROWSER_DOCKER_IMAGES);
@@ -48,6 +53,7 @@ public class CapabilitiesBrowserWebDriverContainer<SELF extends CapabilitiesBrow
 			capabilities,
 			SeleniumUtils.getClasspathSeleniumVersion(),
 			browserDockerImages));
+		this.capabilities = capabilities;
 	}
 	
 	public CapabilitiesBrowserWebDriverContainer(final DockerImageName dockerImageName)
@@ -56,6 +62,34 @@ public class CapabilitiesBrowserWebDriverContainer<SELF extends CapabilitiesBrow
 		this.waitStrategy = this.getDefaultWaitStrategy();
 	}
 	
+	@Override
+	protected SortedMap<String, String> buildReuseIdentity()
+	{
+		final SortedMap<String, String> identity = super.buildReuseIdentity();
+		if(this.capabilities != null)
+		{
+			identity.put("capabilities", new TreeMap<>(this.capabilities.asMap()).toString());
+		}
+		return identity;
+	}
+	
+	/**
+	 * Additionally detects the <code>headless</code> argument in the browser options of the capabilities (e.g.
+	 * <code>goog:chromeOptions</code>).
+	 */
+	@Override
+	protected boolean isHeadless()
+	{
+		return super.isHeadless()
+			|| this.capabilities != null && this.capabilities.asMap().values().stream()
+			.filter(Map.class::isInstance)
+			.map(options -> ((Map<?, ?>)options).get("args"))
+			.filter(Collection.class::isInstance)
+			.flatMap(args -> ((Collection<?>)args).stream())
+			.map(String::valueOf)
+			.anyMatch(arg -> arg.startsWith("--headless") || "-headless".equals(arg));
+	}
+	
 	protected static DockerImageName getStandardImageForCapabilities(
 		final Capabilities capabilities,
 		final String seleniumVersion)
@@ -0,0 +1,193 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.containers.browser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.Properties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.utility.DockerImageName;
+
+
+/**
+ * Persists image translations into a file, so that they can be shared across JVMs (e.g. Maven/Gradle forks).
+ * <p>
+ * Entries expire after a configurable time-to-live so that newly published images are picked up eventually.<br/>
+ * Writes are done into a temporary file which is atomically moved over the cache file while holding a file lock,
+ * so parallel processes never see a partially written file.
+ * </p>
+ * <p>
+ * The cache is best effort: All I/O problems are logged and treated like a cache miss.<br/>
+ * Cached images are only used if they only differ in the tag from the requested image.
+ * </p>
+ */
+public class FileImageTranslationCache implements ImageTranslationCache
+{
+	private static final Logger LOG = LoggerFactory.getLogger(FileImageTranslationCache.class);
+	
+	public static final Duration DEFAULT_TTL = Duration.ofDays(1);
+	// Per user: Other users must not be able to redirect the images that are used
+	public static final Path DEFAULT_FILE = Path.of(
+		System.getProperty("user.home"),
+		".testcontainers-selenium",
+		"image-translations.properties");
+	
+	protected static final String VALUE_SEPARATOR = "|";
+	
+	protected final Path file;
+	protected final Duration ttl;
+	
+	public FileImageTranslationCache()
+	{
+		this(DEFAULT_FILE, DEFAULT_TTL);
+	}
+	
+	public FileImageTranslationCache(final Path file, final Duration ttl)
+	{
+		this.file = file;
+		this.ttl = ttl;
+	}
+	
+	@Override
+	public Optional<String> get(final DockerImageName requestedImage)
+	{
+		if(!Files.exists(this.file))
+		{
+			return Optional.empty();
+		}
+		
+		try
+		{
+			return Optional.ofNullable(this.readEntries().getProperty(requestedImage.asCanonicalNameString()))
+				.filter(this::isNotExpired)
+				.map(value -> value.substring(0, value.lastIndexOf(VALUE_SEPARATOR)))
+				.filter(workingImage -> this.isSameRepository(requestedImage, workingImage));
+		}
+		catch(final Exception ex)
+		{
+			LOG.debug("Failed to read image translation cache {}", this.file, ex);
+			return Optional.empty();
+		}
+	}
+	
+	@Override
+	public void put(final DockerImageName requestedImage, final String workingImage)
+	{
+		try
+		{
+			Files.createDirectories(this.file.getParent());
+			
+			final Path lockFile = this.file.resolveSibling(this.file.getFileName() + ".lock");
+			try(final FileChannel lockChannel = FileChannel.open(
+				lockFile,
+				StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE))
+			{
+				final FileLock lock = lockChannel.lock();
+				try
+				{
+					// Merge with entries from other processes
+					final Properties entries = Files.exists(this.file) ? this.readEntries() : new Properties();
+					entries.entrySet().removeIf(e -> !this.isNotExpired(String.valueOf(e.getValue())));
+					entries.setProperty(
+						requestedImage.asCanonicalNameString(),
+						workingImage + VALUE_SEPARATOR + Instant.now().toEpochMilli());
+					
+					this.writeEntriesAtomically(entries);
+				}
+				finally
+				{
+					lock.release();
+				}
+			}
+		}
+		catch(final Exception ex)
+		{
+			LOG.warn("Failed to write image translation cache {}", this.file, ex);
+		}
+	}
+	
+	protected Properties readEntries() throws IOException
+	{
+		final Properties entries = new Properties();
+		try(final InputStream is = Files.newInputStream(this.file))
+		{
+			entries.load(is);
+		}
+		return entries;
+	}
+	
+	protected void writeEntriesAtomically(final Properties entries) throws IOException
+	{
+		final Path tempFile = Files.createTempFile(this.file.getParent(), this.file.getFileName().toString(), ".tmp");
+		try
+		{
+			try(final OutputStream os = Files.newOutputStream(tempFile))
+			{
+				entries.store(os, null);
+			}
+			Files.move(tempFile, this.file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		}
+		finally
+		{
+			Files.deleteIfExists(tempFile);
+		}
+	}
+	
+	protected boolean isSameRepository(final DockerImageName requestedImage, final String workingImage)
+	{
+		if(requestedImage.getUnversionedPart().equals(DockerImageName.parse(workingImage).getUnversionedPart()))
+		{
+			return true;
+		}
+		LOG.warn(
+			"Ignoring cached image {} for {} in {}; Only the tag may differ",
+			workingImage,
+			requestedImage,
+			this.file);
+		return false;
+	}
+	
+	protected boolean isNotExpired(final String value)
+	{
+		final int separatorIndex = value.lastIndexOf(VALUE_SEPARATOR);
+		if(separatorIndex < 0)
+		{
+			return false;
+		}
+		try
+		{
+			final Instant createdAt = Instant.ofEpochMilli(Long.parseLong(value.substring(separatorIndex + 1)));
+			return createdAt.plus(this.ttl).isAfter(Instant.now());
+		}
+		catch(final NumberFormatException nfe)
+		{
+			return false;
+		}
+	}
+}
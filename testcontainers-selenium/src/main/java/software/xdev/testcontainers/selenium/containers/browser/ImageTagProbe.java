@@ -0,0 +1,290 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.containers.browser;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.utility.DockerImageName;
+import org.testcontainers.utility.ImageNameSubstitutor;
+
+import com.github.dockerjava.api.exception.NotFoundException;
+import com.github.dockerjava.api.model.InfoRegistryConfig;
+
+
+/**
+ * Checks if an image tag exists - without pulling it.
+ * <p>
+ * The image is checked after applying the {@link ImageNameSubstitutor} of Testcontainers, as this is the image that
+ * is pulled. Images that are present locally exist. Otherwise the manifest is requested from the registry
+ * (<code>HEAD /v2/&lt;repository&gt;/manifests/&lt;tag&gt;</code>), using an anonymous token if the registry
+ * requires one.<br/>
+ * Docker Hub is not queried if the Docker daemon is configured with a mirror for it.
+ * </p>
+ * <p>
+ * If the existence can't be determined (e.g. private registry, no connection) the result is empty and the caller
+ * has to fall back to pulling.
+ * </p>
+ */
+public class ImageTagProbe
+{
+	private static final Logger LOG = LoggerFactory.getLogger(ImageTagProbe.class);
+	
+	public static final String DOCKER_HUB_REGISTRY = "registry-1.docker.io";
+	
+	protected static final String MANIFEST_MEDIA_TYPES = String.join(
+		", ",
+		"application/vnd.oci.image.index.v1+json",
+		"application/vnd.oci.image.manifest.v1+json",
+		"application/vnd.docker.distribution.manifest.list.v2+json",
+		"application/vnd.docker.distribution.manifest.v2+json");
+	
+	protected static final Pattern CHALLENGE_PARAM_PATTERN = Pattern.compile("(\\w+)=\"([^\"]*)\"");
+	protected static final Pattern TOKEN_PATTERN = Pattern.compile("\"(?:token|access_token)\"\\s*:\\s*\"([^\"]+)\"");
+	
+	protected final HttpClient httpClient;
+	protected final Duration requestTimeout;
+	protected Boolean dockerHubMirrored;
+	
+	public ImageTagProbe()
+	{
+		this(
+			HttpClient.newBuilder()
+				.connectTimeout(Duration.ofSeconds(5))
+				.followRedirects(HttpClient.Redirect.NORMAL)
+				.build(),
+			Duration.ofSeconds(10));
+	}
+	
+	public ImageTagProbe(final HttpClient httpClient, final Duration requestTimeout)
+	{
+		this.httpClient = httpClient;
+		this.requestTimeout = requestTimeout;
+	}
+	
+	/**
+	 * @return if the image exists; empty if this couldn't be determined
+	 */
+	public Optional<Boolean> exists(final DockerImageName requestedImage)
+	{
+		final DockerImageName image = ImageNameSubstitutor.instance().apply(requestedImage);
+		if(this.existsLocally(image))
+		{
+			return Optional.of(true);
+		}
+		if(isDockerHub(image) && this.isDockerHubMirrored())
+		{
+			// The daemon pulls from the mirror; Docker Hub might not even be reachable
+			return Optional.empty();
+		}
+		
+		try
+		{
+			return this.existsInRegistry(image);
+		}
+		catch(final IOException ex)
+		{
+			LOG.debug("Failed to check if {} exists in registry", image, ex);
+			return Optional.empty();
+		}
+		catch(final InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Got interrupted", e);
+		}
+	}
+	
+	protected boolean existsLocally(final DockerImageName image)
+	{
+		try
+		{
+			DockerClientFactory.lazyClient().inspectImageCmd(image.asCanonicalNameString()).exec();
+			return true;
+		}
+		catch(final NotFoundException nfe)
+		{
+			return false;
+		}
+		catch(final Exception ex)
+		{
+			LOG.debug("Failed to check if {} exists locally", image, ex);
+			return false;
+		}
+	}
+	
+	protected synchronized boolean isDockerHubMirrored()
+	{
+		if(this.dockerHubMirrored == null)
+		{
+			this.dockerHubMirrored = this.determineDockerHubMirrored();
+		}
+		return this.dockerHubMirrored;
+	}
+	
+	protected boolean determineDockerHubMirrored()
+	{
+		try
+		{
+			final InfoRegistryConfig registryConfig = DockerClientFactory.instance().getInfo().getRegistryConfig();
+			final InfoRegistryConfig.IndexConfig dockerHubConfig = registryConfig != null
+				&& registryConfig.getIndexConfigs() != null
+				? registryConfig.getIndexConfigs().get("docker.io")
+				: null;
+			return dockerHubConfig != null
+				&& dockerHubConfig.getMirrors() != null
+				&& !dockerHubConfig.getMirrors().isEmpty();
+		}
+		catch(final Exception ex)
+		{
+			LOG.debug("Failed to determine registry mirrors", ex);
+			return false;
+		}
+	}
+	
+	protected Optional<Boolean> existsInRegistry(final DockerImageName image)
+		throws IOException, InterruptedException
+	{
+		final URI manifestURI = manifestURI(image);
+		HttpResponse<Void> response = this.httpClient.send(
+			this.newManifestRequest(manifestURI).build(),
+			HttpResponse.BodyHandlers.discarding());
+		
+		if(response.statusCode() == 401)
+		{
+			final String token = response.headers()
+				.firstValue("WWW-Authenticate")
+				.flatMap(this::fetchAnonymousToken)
+				.orElse(null);
+			if(token == null)
+			{
+				return Optional.empty();
+			}
+			response = this.httpClient.send(
+				this.newManifestRequest(manifestURI).header("Authorization", "Bearer " + token).build(),
+				HttpResponse.BodyHandlers.discarding());
+		}
+		
+		return switch(response.statusCode())
+		{
+			case 200 -> Optional.of(true);
+			case 404 -> Optional.of(false);
+			default -> Optional.empty();
+		};
+	}
+	
+	protected HttpRequest.Builder newManifestRequest(final URI manifestURI)
+	{
+		return HttpRequest.newBuilder(manifestURI)
+			.timeout(this.requestTimeout)
+			.header("Accept", MANIFEST_MEDIA_TYPES)
+			.method("HEAD", HttpRequest.BodyPublishers.noBody());
+	}
+	
+	protected Optional<String> fetchAnonymousToken(final String challenge)
+	{
+		final Map<String, String> params = parseBearerChallenge(challenge);
+		final String realm = params.remove("realm");
+		if(realm == null)
+		{
+			return Optional.empty();
+		}
+		
+		final String query = params.entrySet()
+			.stream()
+			.map(e -> e.getKey() + "=" + URLEncoder.encode(e.getValue(), StandardCharsets.UTF_8))
+			.collect(Collectors.joining("&"));
+		final String tokenURI = query.isEmpty() ? realm : realm + (realm.contains("?") ? "&" : "?") + query;
+		
+		try
+		{
+			final HttpResponse<String> response = this.httpClient.send(
+				HttpRequest.newBuilder(URI.create(tokenURI)).timeout(this.requestTimeout).GET().build(),
+				HttpResponse.BodyHandlers.ofString());
+			final Matcher matcher = TOKEN_PATTERN.matcher(response.body());
+			return response.statusCode() == 200 && matcher.find() ? Optional.of(matcher.group(1)) : Optional.empty();
+		}
+		catch(final IOException ex)
+		{
+			LOG.debug("Failed to fetch registry token from {}", realm, ex);
+			return Optional.empty();
+		}
+		catch(final InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Got interrupted", e);
+		}
+	}
+	
+	/**
+	 * @return the parameters of a challenge like
+	 * <code>Bearer realm="https://auth.docker.io/token",service="registry.docker.io"</code>; empty if it's not a
+	 * bearer challenge
+	 */
+	public static Map<String, String> parseBearerChallenge(final String challenge)
+	{
+		final Map<String, String> params = new HashMap<>();
+		if(!challenge.regionMatches(true, 0, "Bearer ", 0, 7))
+		{
+			return params;
+		}
+		final Matcher matcher = CHALLENGE_PARAM_PATTERN.matcher(challenge);
+		while(matcher.find())
+		{
+			params.put(matcher.group(1), matcher.group(2));
+		}
+		return params;
+	}
+	
+	public static boolean isDockerHub(final DockerImageName image)
+	{
+		final String registry = image.getRegistry();
+		return registry == null
+			|| registry.isEmpty()
+			|| "docker.io".equals(registry)
+			|| "index.docker.io".equals(registry);
+	}
+	
+	public static URI manifestURI(final DockerImageName image)
+	{
+		String registry = image.getRegistry();
+		String repository = image.getRepository();
+		if(isDockerHub(image))
+		{
+			registry = DOCKER_HUB_REGISTRY;
+			if(!repository.contains("/"))
+			{
+				// Official images
+				repository = "library/" + repository;
+			}
+		}
+		return URI.create("https://" + registry + "/v2/" + repository + "/manifests/" + image.getVersionPart());
+	}
+}
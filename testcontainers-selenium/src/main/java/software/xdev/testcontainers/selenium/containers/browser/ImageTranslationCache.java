@@ -0,0 +1,36 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.containers.browser;
+
+import java.util.Optional;
+
+import org.testcontainers.utility.DockerImageName;
+
+
+/**
+ * Caches which image should be used for a requested browser image.
+ *
+ * @see BrowserWebDriverContainer#validateImageOrPickAlternative(DockerImageName)
+ */
+public interface ImageTranslationCache
+{
+	/**
+	 * @return the image (canonical name) that should be used instead of the requested image - if known
+	 */
+	Optional<String> get(DockerImageName requestedImage);
+	
+	void put(DockerImageName requestedImage, String workingImage);
+}
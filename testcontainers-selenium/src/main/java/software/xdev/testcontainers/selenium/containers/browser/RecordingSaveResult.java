@@ -0,0 +1,44 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.containers.browser;
+
+import java.nio.file.Path;
+
+
+/**
+ * Outcome of saving the recording of a single test.
+ *
+ * @param testName  name of the test
+ * @param recording the saved recording; <code>null</code> if nothing was saved
+ * @param failure   why saving failed; <code>null</code> if it succeeded
+ */
+public record RecordingSaveResult(String testName, Path recording, Exception failure)
+{
+	public static RecordingSaveResult success(final String testName, final Path recording)
+	{
+		return new RecordingSaveResult(testName, recording, null);
+	}
+	
+	public static RecordingSaveResult failure(final String testName, final Exception failure)
+	{
+		return new RecordingSaveResult(testName, null, failure);
+	}
+	
+	public boolean succeeded()
+	{
+		return this.failure == null;
+	}
+}
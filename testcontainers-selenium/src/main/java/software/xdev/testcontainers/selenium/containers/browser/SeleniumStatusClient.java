@@ -0,0 +1,235 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.containers.browser;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+
+/**
+ * Minimal client for the HTTP endpoints of a Selenium server (standalone, node or hub).
+ * <p>
+ * Only the few values that are required are extracted from the responses, so that no JSON library is needed.
+ * </p>
+ */
+public class SeleniumStatusClient
+{
+	protected static final HttpClient DEFAULT_HTTP_CLIENT = HttpClient.newBuilder()
+		.connectTimeout(Duration.ofSeconds(5))
+		.build();
+	
+	protected static final Pattern SESSION_ID_PATTERN = Pattern.compile("\"sessionId\"\\s*:\\s*\"([^\"]+)\"");
+	protected static final Pattern SESSION_QUEUE_SIZE_PATTERN =
+		Pattern.compile("\"sessionQueueSize\"\\s*:\\s*(\\d+)");
+	protected static final Pattern NODE_ID_PATTERN = Pattern.compile("\"nodeId\"\\s*:\\s*\"([^\"]+)\"");
+	protected static final Pattern VALUE_STRING_PATTERN = Pattern.compile("\"value\"\\s*:\\s*\"([^\"]*)\"");
+	
+	protected final URI baseURI;
+	protected final HttpClient httpClient;
+	protected Duration requestTimeout = Duration.ofSeconds(10);
+	
+	/**
+	 * @param baseURI The root address of the server, e.g. <code>http://localhost:4444</code>
+	 */
+	public SeleniumStatusClient(final URI baseURI)
+	{
+		this(baseURI, DEFAULT_HTTP_CLIENT);
+	}
+	
+	public SeleniumStatusClient(final URI baseURI, final HttpClient httpClient)
+	{
+		this.baseURI = baseURI;
+		this.httpClient = httpClient;
+	}
+	
+	public SeleniumStatusClient withRequestTimeout(final Duration requestTimeout)
+	{
+		this.requestTimeout = requestTimeout;
+		return this;
+	}
+	
+	/**
+	 * @return the raw JSON returned by the <code>/status</code> endpoint
+	 */
+	public String fetchStatus()
+	{
+		return this.send(this.newRequest("/status").GET().build());
+	}
+	
+	/**
+	 * @return the ids of all sessions that are currently active on the server
+	 */
+	public Set<String> fetchActiveSessionIds()
+	{
+		return extractSessionIds(this.fetchStatus());
+	}
+	
+	public void deleteSession(final String sessionId)
+	{
+		this.send(this.newRequest("/session/" + sessionId).DELETE().build());
+	}
+	
+	/**
+	 * Only available on a node.
+	 *
+	 * @return the id with which the node is registered at the Grid
+	 */
+	public String fetchNodeId()
+	{
+		final String status = this.fetchStatus();
+		final Matcher matcher = NODE_ID_PATTERN.matcher(status);
+		if(!matcher.find())
+		{
+			throw new IllegalStateException("Response contains no nodeId: " + status);
+		}
+		return matcher.group(1);
+	}
+	
+	/**
+	 * Only available on a Grid (hub/router).
+	 * <p>
+	 * The node no longer receives new sessions; It shuts down and deregisters once its current sessions are
+	 * completed.
+	 * </p>
+	 */
+	public void drainNode(final String nodeId)
+	{
+		this.send(this.newRequest("/se/grid/distributor/node/" + nodeId + "/drain")
+			// Empty as long as the Grid is not configured with a secret
+			.header("X-REGISTRATION-SECRET", "")
+			.POST(HttpRequest.BodyPublishers.noBody())
+			.build());
+	}
+	
+	/**
+	 * Only available on a Grid (hub/router).
+	 */
+	public boolean isNodeRegistered(final String nodeId)
+	{
+		return this.fetchStatus().contains("\"" + nodeId + "\"");
+	}
+	
+	/**
+	 * Only available on a Grid (hub/router).
+	 *
+	 * @return <code>false</code> if the node was still registered after the timeout
+	 */
+	public boolean awaitNodeDeregistered(final String nodeId, final Duration timeout, final Duration pollInterval)
+		throws InterruptedException
+	{
+		final long deadlineNanos = System.nanoTime() + timeout.toNanos();
+		while(this.isNodeRegistered(nodeId))
+		{
+			if(System.nanoTime() > deadlineNanos)
+			{
+				return false;
+			}
+			Thread.sleep(pollInterval.toMillis());
+		}
+		return true;
+	}
+	
+	/**
+	 * Takes a screenshot of the current page of a session - without going through the WebDriver of the test.
+	 *
+	 * @return the screenshot as PNG
+	 */
+	public byte[] fetchScreenshot(final String sessionId)
+	{
+		final String response = this.send(this.newRequest("/session/" + sessionId + "/screenshot").GET().build());
+		
+		final Matcher matcher = VALUE_STRING_PATTERN.matcher(response);
+		if(!matcher.find())
+		{
+			throw new IllegalStateException("Response contains no screenshot for session " + sessionId);
+		}
+		return Base64.getMimeDecoder().decode(matcher.group(1));
+	}
+	
+	/**
+	 * Only available on a Grid (hub/router).
+	 * <p>
+	 * The queue is not part of the <code>/status</code> response, so it's queried using GraphQL.
+	 * </p>
+	 *
+	 * @return the amount of new session requests that are waiting for a free slot
+	 */
+	public int fetchSessionQueueSize()
+	{
+		final String response = this.send(this.newRequest("/graphql")
+			.header("Content-Type", "application/json")
+			.POST(HttpRequest.BodyPublishers.ofString("{\"query\":\"{ grid { sessionQueueSize } }\"}"))
+			.build());
+		
+		final Matcher matcher = SESSION_QUEUE_SIZE_PATTERN.matcher(response);
+		if(!matcher.find())
+		{
+			throw new IllegalStateException("Response contains no sessionQueueSize: " + response);
+		}
+		return Integer.parseInt(matcher.group(1));
+	}
+	
+	protected HttpRequest.Builder newRequest(final String path)
+	{
+		return HttpRequest.newBuilder(this.baseURI.resolve(path))
+			.timeout(this.requestTimeout)
+			.header("Accept", "application/json");
+	}
+	
+	protected String send(final HttpRequest request)
+	{
+		try
+		{
+			final HttpResponse<String> response = this.httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+			if(response.statusCode() >= 400)
+			{
+				throw new IllegalStateException(
+					"Unexpected response code " + response.statusCode() + " for " + request.uri());
+			}
+			return response.body();
+		}
+		catch(final IOException ioe)
+		{
+			throw new UncheckedIOException(ioe);
+		}
+		catch(final InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Got interrupted", e);
+		}
+	}
+	
+	public static Set<String> extractSessionIds(final String statusJson)
+	{
+		final Set<String> sessionIds = new LinkedHashSet<>();
+		final Matcher matcher = SESSION_ID_PATTERN.matcher(statusJson);
+		while(matcher.find())
+		{
+			sessionIds.add(matcher.group(1));
+		}
+		return sessionIds;
+	}
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.containers.browser;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.IntSupplier;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.ContainerLaunchException;
+import org.testcontainers.containers.wait.strategy.AbstractWaitStrategy;
+
+
+/**
+ * Waits until the <code>/status</code> endpoint of Selenium reports <code>"ready": true</code>.
+ * <p>
+ * The endpoint is polled with exponential backoff - starting with a short interval - so that the container is
+ * handed over as soon as Selenium can accept sessions.<br/>
+ * The time until the container was ready is recorded in the {@link StartupTimeStatistics}.
+ * </p>
+ */
+public class SeleniumStatusWaitStrategy extends AbstractWaitStrategy
+{
+	private static final Logger LOG = LoggerFactory.getLogger(SeleniumStatusWaitStrategy.class);
+	
+	protected static final Pattern READY_PATTERN = Pattern.compile("\"ready\"\\s*:\\s*true");
+	
+	protected IntSupplier portSupplier = () -> BrowserWebDriverContainer.SELENIUM_PORT;
+	protected Duration initialPollInterval = Duration.ofMillis(50);
+	protected Duration maxPollInterval = Duration.ofSeconds(1);
+	protected StartupTimeStatistics startupTimeStatistics = StartupTimeStatistics.getDefault();
+	
+	public SeleniumStatusWaitStrategy withPort(final int port)
+	{
+		return this.withPort(() -> port);
+	}
+	
+	/**
+	 * @param portSupplier Resolves the (unmapped) port of Selenium once the container is started
+	 */
+	public SeleniumStatusWaitStrategy withPort(final IntSupplier portSupplier)
+	{
+		this.portSupplier = Objects.requireNonNull(portSupplier);
+		return this;
+	}
+	
+	/**
+	 * @param initialPollInterval The interval after the first attempt; Doubled after every failed attempt
+	 * @param maxPollInterval     Upper limit of the interval
+	 */
+	public SeleniumStatusWaitStrategy withPollInterval(
+		final Duration initialPollInterval,
+		final Duration maxPollInterval)
+	{
+		this.initialPollInterval = initialPollInterval;
+		this.maxPollInterval = maxPollInterval;
+		return this;
+	}
+	
+	/**
+	 * @param startupTimeStatistics Where the time to ready is recorded; <code>null</code> disables recording
+	 */
+	public SeleniumStatusWaitStrategy withStartupTimeStatistics(final StartupTimeStatistics startupTimeStatistics)
+	{
+		this.startupTimeStatistics = startupTimeStatistics;
+		return this;
+	}
+	
+	@Override
+	protected void waitUntilReady()
+	{
+		final long startNanos = System.nanoTime();
+		final long deadlineNanos = startNanos + this.startupTimeout.toNanos();
+		final int port = this.portSupplier.getAsInt();
+		
+		final SeleniumStatusClient statusClient = new SeleniumStatusClient(URI.create(
+			"http://" + this.waitStrategyTarget.getHost() + ":" + this.waitStrategyTarget.getMappedPort(port)))
+			.withRequestTimeout(this.maxPollInterval.multipliedBy(2));
+		
+		Duration pollInterval = this.initialPollInterval;
+		Exception lastFailure = null;
+		while(System.nanoTime() < deadlineNanos)
+		{
+			try
+			{
+				if(READY_PATTERN.matcher(statusClient.fetchStatus()).find())
+				{
+					this.recordTimeToReady(Duration.ofNanos(System.nanoTime() - startNanos));
+					return;
+				}
+			}
+			catch(final Exception ex)
+			{
+				// Not yet reachable
+				lastFailure = ex;
+			}
+			
+			this.sleep(pollInterval);
+			pollInterval = min(pollInterval.multipliedBy(2), this.maxPollInterval);
+		}
+		
+		throw new ContainerLaunchException(
+			"Timed out after " + this.startupTimeout + " waiting for Selenium to be ready on port " + port,
+			lastFailure);
+	}
+	
+	protected void recordTimeToReady(final Duration timeToReady)
+	{
+		final String image = this.waitStrategyTarget.getContainerInfo().getConfig().getImage();
+		LOG.debug("{} was ready after {}ms", image, timeToReady.toMillis());
+		if(this.startupTimeStatistics != null)
+		{
+			this.startupTimeStatistics.record(image, timeToReady);
+		}
+	}
+	
+	protected void sleep(final Duration duration)
+	{
+		try
+		{
+			Thread.sleep(duration.toMillis());
+		}
+		catch(final InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new ContainerLaunchException("Got interrupted", e);
+		}
+	}
+	
+	protected static Duration min(final Duration a, final Duration b)
+	{
+		return a.compareTo(b) <= 0 ? a : b;
+	}
+}
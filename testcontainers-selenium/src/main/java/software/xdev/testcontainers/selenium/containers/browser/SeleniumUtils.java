@@ -15,10 +15,13 @@
  */
 package software.xdev.testcontainers.selenium.containers.browser;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.net.URI;
 import java.net.URL;
 import java.util.Enumeration;
 import java.util.HashSet;
+import java.util.Properties;
 import java.util.Set;
 import java.util.jar.Attributes;
 import java.util.jar.Manifest;
@@ -39,7 +42,23 @@ public final class SeleniumUtils
 	
 	// as of 2026-01
 	public static final String DEFAULT_SELENIUM_VERSION = "4.45.0";
-	private static String cachedVersion;
+	
+	/**
+	 * System property that overrides the detected version.
+	 */
+	public static final String SELENIUM_VERSION_PROPERTY = "testcontainers.selenium.version";
+	/**
+	 * Optional classpath resource containing the version as {@link #VERSION_RESOURCE_KEY}.
+	 * <p>
+	 * Can be generated during the build (e.g. by resource filtering). Used when the manifest of selenium-api can't be
+	 * read (e.g. in shaded JARs), so that not every manifest on the classpath needs to be scanned.
+	 * </p>
+	 */
+	public static final String VERSION_RESOURCE = "META-INF/testcontainers-selenium/selenium-version.properties";
+	public static final String VERSION_RESOURCE_KEY = "selenium.version";
+	
+	static final String SELENIUM_API_CLASS_RESOURCE = "org/openqa/selenium/Capabilities.class";
+	static final String MANIFEST_RESOURCE = "META-INF/MANIFEST.MF";
 	
 	private SeleniumUtils()
 	{
@@ -47,46 +66,119 @@ public final class SeleniumUtils
 	
 	/**
 	 * Based on the JARs detected on the classpath, determine which version of selenium-api is available.
+	 * <p>
+	 * The version is only determined once per JVM.
+	 * </p>
 	 *
 	 * @return the detected version of Selenium API, or DEFAULT_SELENIUM_VERSION if it could not be determined
 	 */
 	public static String getClasspathSeleniumVersion()
 	{
-		if(cachedVersion != null)
+		return CachedVersionHolder.VERSION;
+	}
+	
+	/**
+	 * Determines the version (uncached).
+	 * <p>
+	 * Lookup order:
+	 * <ol>
+	 *     <li>System property {@link #SELENIUM_VERSION_PROPERTY}</li>
+	 *     <li>Manifest of the JAR containing selenium-api</li>
+	 *     <li>Classpath resource {@link #VERSION_RESOURCE}</li>
+	 *     <li>All manifests on the classpath</li>
+	 * </ol>
+	 * </p>
+	 */
+	public static String determineClasspathSeleniumVersion()
+	{
+		final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		
+		final String configuredVersion = System.getProperty(SELENIUM_VERSION_PROPERTY);
+		if(configuredVersion != null && !configuredVersion.isBlank())
+		{
+			return configuredVersion.trim();
+		}
+		
+		final String seleniumApiVersion = readVersionFromSeleniumApiJar(classLoader);
+		if(seleniumApiVersion != null)
+		{
+			LOG.info("Selenium API version {} detected on classpath", seleniumApiVersion);
+			return seleniumApiVersion;
+		}
+		
+		// Looking up a missing resource is not free -> Only do it when required
+		final String resourceVersion = readVersionFromResource(classLoader);
+		if(resourceVersion != null)
+		{
+			return resourceVersion;
+		}
+		
+		return scanAllManifests(classLoader);
+	}
+	
+	static String readVersionFromResource(final ClassLoader classLoader)
+	{
+		final URL resource = classLoader.getResource(VERSION_RESOURCE);
+		if(resource == null)
+		{
+			return null;
+		}
+		
+		try(final InputStream is = resource.openStream())
 		{
-			return cachedVersion;
+			final Properties properties = new Properties();
+			properties.load(is);
+			final String version = properties.getProperty(VERSION_RESOURCE_KEY);
+			return version != null && !version.isBlank() ? version.trim() : null;
+		}
+		catch(final Exception e)
+		{
+			LOG.debug("Failed to read Selenium-Version from {}", resource, e);
+			return null;
 		}
-		cachedVersion = determineClasspathSeleniumVersion();
-		return cachedVersion;
 	}
 	
-	public static synchronized String determineClasspathSeleniumVersion()
+	/**
+	 * Reads only the manifest of the JAR that contains selenium-api.
+	 */
+	static String readVersionFromSeleniumApiJar(final ClassLoader classLoader)
 	{
-		if(cachedVersion != null)
+		final URL classResource = classLoader.getResource(SELENIUM_API_CLASS_RESOURCE);
+		if(classResource == null || !"jar".equals(classResource.getProtocol()))
 		{
-			return cachedVersion;
+			return null;
 		}
 		
+		try
+		{
+			final String classUrl = classResource.toString();
+			// jar:file:/.../selenium-api.jar!/org/... -> jar:file:/.../selenium-api.jar!/META-INF/MANIFEST.MF
+			final URL manifestURL = URI.create(
+				classUrl.substring(0, classUrl.length() - SELENIUM_API_CLASS_RESOURCE.length())
+					+ MANIFEST_RESOURCE).toURL();
+			return readVersionFromManifest(manifestURL);
+		}
+		catch(final Exception e)
+		{
+			LOG.debug("Failed to read Selenium-Version from selenium-api JAR {}", classResource, e);
+			return null;
+		}
+	}
+	
+	static String scanAllManifests(final ClassLoader classLoader)
+	{
 		final Set<String> seleniumVersions = new HashSet<>();
 		try
 		{
-			final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
-			final Enumeration<URL> manifests = classLoader.getResources("META-INF/MANIFEST.MF");
+			final Enumeration<URL> manifests = classLoader.getResources(MANIFEST_RESOURCE);
 			
 			while(manifests.hasMoreElements())
 			{
-				final URL manifestURL = manifests.nextElement();
-				try(final InputStream is = manifestURL.openStream())
+				final String seleniumVersion = readVersionFromManifest(manifests.nextElement());
+				if(seleniumVersion != null)
 				{
-					final Manifest manifest = new Manifest();
-					manifest.read(is);
-					
-					final String seleniumVersion = getSeleniumVersionFromManifest(manifest);
-					if(seleniumVersion != null)
-					{
-						seleniumVersions.add(seleniumVersion);
-						LOG.info("Selenium API version {} detected on classpath", seleniumVersion);
-					}
+					seleniumVersions.add(seleniumVersion);
+					LOG.info("Selenium API version {} detected on classpath", seleniumVersion);
 				}
 			}
 		}
@@ -116,6 +208,14 @@ public final class SeleniumUtils
 		return foundVersion;
 	}
 	
+	static String readVersionFromManifest(final URL manifestURL) throws IOException
+	{
+		try(final InputStream is = manifestURL.openStream())
+		{
+			return getSeleniumVersionFromManifest(new Manifest(is));
+		}
+	}
+	
 	/**
 	 * Read Manifest to get Selenium Version.
 	 *
@@ -142,4 +242,16 @@ public final class SeleniumUtils
 		}
 		return seleniumVersion;
 	}
+	
+	/**
+	 * Lazily determines the version exactly once (class initialization is thread-safe).
+	 */
+	private static final class CachedVersionHolder
+	{
+		static final String VERSION = determineClasspathSeleniumVersion();
+		
+		private CachedVersionHolder()
+		{
+		}
+	}
 }
@@ -0,0 +1,110 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.containers.browser;
+
+import java.net.URI;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * A slot for one WebDriver session inside a {@link BrowserWebDriverContainer} that serves multiple sessions.
+ * <p>
+ * Closing the lease frees the slot. If the id of the created session was {@link #registerSessionId(String)
+ * registered} and the session is still active (e.g. because the test didn't quit its driver) it's deleted first,
+ * so that the slot is really free for the next test.
+ * </p>
+ *
+ * @see BrowserWebDriverContainer#leaseSession()
+ */
+public class SessionLease implements AutoCloseable
+{
+	private static final Logger LOG = LoggerFactory.getLogger(SessionLease.class);
+	
+	protected final BrowserWebDriverContainer<?> container;
+	protected final Semaphore permits;
+	protected final AtomicBoolean released = new AtomicBoolean();
+	protected String sessionId;
+	
+	protected SessionLease(final BrowserWebDriverContainer<?> container, final Semaphore permits)
+	{
+		this.container = container;
+		this.permits = permits;
+	}
+	
+	public BrowserWebDriverContainer<?> getContainer()
+	{
+		return this.container;
+	}
+	
+	/**
+	 * @return the address that should be used for creating the WebDriver session
+	 */
+	public URI getSeleniumAddressURI()
+	{
+		return this.container.getSeleniumAddressURI();
+	}
+	
+	/**
+	 * @param sessionId The id of the session that was created using this lease
+	 */
+	public SessionLease registerSessionId(final String sessionId)
+	{
+		this.sessionId = sessionId;
+		return this;
+	}
+	
+	@Override
+	public void close()
+	{
+		if(!this.released.compareAndSet(false, true))
+		{
+			return;
+		}
+		
+		try
+		{
+			if(this.sessionId != null && this.container.isRunning())
+			{
+				this.deleteSessionIfActive();
+			}
+		}
+		finally
+		{
+			this.permits.release();
+		}
+	}
+	
+	protected void deleteSessionIfActive()
+	{
+		try
+		{
+			final SeleniumStatusClient statusClient = this.container.createStatusClient();
+			if(statusClient.fetchActiveSessionIds().contains(this.sessionId))
+			{
+				LOG.debug("Deleting session {} that was not quit", this.sessionId);
+				statusClient.deleteSession(this.sessionId);
+			}
+		}
+		catch(final Exception ex)
+		{
+			LOG.warn("Failed to delete session {}", this.sessionId, ex);
+		}
+	}
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.containers.browser;
+
+/**
+ * Describes a browser container for which the size of <code>/dev/shm</code> is computed.
+ *
+ * @param browser     The browser of the container, e.g. <code>chrome</code> or <code>firefox</code>
+ * @param headless    If the browser runs without a display
+ * @param maxSessions The maximum amount of concurrent sessions (= browser instances)
+ */
+public record ShmSizingContext(
+	String browser,
+	boolean headless,
+	int maxSessions)
+{
+}
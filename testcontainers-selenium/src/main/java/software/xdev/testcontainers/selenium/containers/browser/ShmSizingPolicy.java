@@ -0,0 +1,50 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.containers.browser;
+
+/**
+ * Computes the size of <code>/dev/shm</code> for a browser container.
+ * <p>
+ * When a policy is set the container gets its own shared memory instead of sharing the one of the host, so that
+ * parallel containers don't compete for it.
+ * </p>
+ *
+ * @see BrowserWebDriverContainer#withShmSizingPolicy(ShmSizingPolicy)
+ */
+@FunctionalInterface
+public interface ShmSizingPolicy
+{
+	/**
+	 * @return the size of <code>/dev/shm</code> in bytes
+	 */
+	long computeShmSize(ShmSizingContext context);
+	
+	/**
+	 * The same size for every session - regardless of the browser.
+	 */
+	static ShmSizingPolicy fixedPerSession(final long bytesPerSession)
+	{
+		return context -> bytesPerSession * context.maxSessions();
+	}
+	
+	/**
+	 * Sizes that depend on the browser and if it runs headless.
+	 */
+	static BrowserAwareShmSizingPolicy browserAware()
+	{
+		return new BrowserAwareShmSizingPolicy();
+	}
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.containers.browser;
+
+/**
+ * The usage of <code>/dev/shm</code> inside a container at a point in time.
+ *
+ * @param sizeBytes Total size
+ * @param usedBytes Used
+ */
+public record ShmUsage(long sizeBytes, long usedBytes)
+{
+	/**
+	 * @return used size relative to the total size (<code>0.0</code> - <code>1.0</code>)
+	 */
+	public double usedRatio()
+	{
+		return this.sizeBytes > 0 ? (double)this.usedBytes / this.sizeBytes : 0;
+	}
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.containers.browser;
+
+import java.time.Duration;
+
+
+/**
+ * A single attempt to start a container.
+ *
+ * @param attempt       Number of the attempt (starting at 1)
+ * @param duration      How long the attempt took
+ * @param failureReason Why the attempt failed; <code>null</code> if it succeeded
+ * @param failure       The failure; <code>null</code> if it succeeded
+ */
+public record StartupAttempt(
+	int attempt,
+	Duration duration,
+	StartupFailureReason failureReason,
+	Throwable failure)
+{
+	public static StartupAttempt success(final int attempt, final Duration duration)
+	{
+		return new StartupAttempt(attempt, duration, null, null);
+	}
+	
+	public static StartupAttempt failure(
+		final int attempt,
+		final Duration duration,
+		final StartupFailureReason failureReason,
+		final Throwable failure)
+	{
+		return new StartupAttempt(attempt, duration, failureReason, failure);
+	}
+	
+	public boolean succeeded()
+	{
+		return this.failure == null;
+	}
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.containers.browser;
+
+/**
+ * Classification of why a startup attempt of a container failed.
+ *
+ * @see StartupRetryPolicy#classify(Throwable)
+ */
+public enum StartupFailureReason
+{
+	/**
+	 * The image could not be pulled, e.g. because it doesn't exist.
+	 */
+	IMAGE_PULL,
+	/**
+	 * A port could not be bound on the host.
+	 */
+	PORT_BIND,
+	/**
+	 * The container didn't become ready in time.
+	 */
+	WAIT_TIMEOUT,
+	/**
+	 * The container ran out of memory, usually because <code>/dev/shm</code> is too small.
+	 */
+	SHM_OOM,
+	UNKNOWN,
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.containers.browser;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+
+import org.testcontainers.containers.ContainerFetchException;
+
+
+/**
+ * Decides if and when a failed container startup is retried.
+ * <p>
+ * Failures are {@link #classify(Throwable) classified} and only the ones that can recover are retried (by default:
+ * port conflicts, timeouts and unknown failures). This way e.g. a non-existing image fails immediately instead of
+ * being retried multiple times.<br/>
+ * Between attempts the policy waits with exponential backoff. No further attempt is made when the total deadline
+ * would be exceeded.
+ * </p>
+ */
+public class StartupRetryPolicy
+{
+	protected int maxAttempts = 3;
+	protected Duration initialBackoff = Duration.ofSeconds(1);
+	protected Duration maxBackoff = Duration.ofSeconds(10);
+	protected Duration deadline = Duration.ofMinutes(5);
+	protected Set<StartupFailureReason> retryableReasons = EnumSet.of(
+		StartupFailureReason.PORT_BIND,
+		StartupFailureReason.WAIT_TIMEOUT,
+		StartupFailureReason.UNKNOWN);
+	
+	public static StartupRetryPolicy defaults()
+	{
+		return new StartupRetryPolicy();
+	}
+	
+	public static StartupRetryPolicy noRetry()
+	{
+		return new StartupRetryPolicy().withMaxAttempts(1);
+	}
+	
+	public StartupRetryPolicy withMaxAttempts(final int maxAttempts)
+	{
+		if(maxAttempts < 1)
+		{
+			throw new IllegalArgumentException("maxAttempts must be at least 1");
+		}
+		this.maxAttempts = maxAttempts;
+		return this;
+	}
+	
+	/**
+	 * @param initialBackoff Wait time before the second attempt; Doubled for every further attempt
+	 * @param maxBackoff     Upper limit of the wait time
+	 */
+	public StartupRetryPolicy withBackoff(final Duration initialBackoff, final Duration maxBackoff)
+	{
+		this.initialBackoff = initialBackoff;
+		this.maxBackoff = maxBackoff;
+		return this;
+	}
+	
+	/**
+	 * @param deadline Total time for all attempts; No further attempt is started after it
+	 */
+	public StartupRetryPolicy withDeadline(final Duration deadline)
+	{
+		this.deadline = deadline;
+		return this;
+	}
+	
+	public StartupRetryPolicy withRetryableReasons(final Set<StartupFailureReason> retryableReasons)
+	{
+		this.retryableReasons = retryableReasons.isEmpty()
+			? EnumSet.noneOf(StartupFailureReason.class)
+			: EnumSet.copyOf(retryableReasons);
+		return this;
+	}
+	
+	/**
+	 * @param failedAttempt Number of the attempt that failed (starting at 1)
+	 * @param reason        Why the attempt failed
+	 * @param elapsed       Time elapsed since the first attempt was started
+	 * @return how long to wait before the next attempt or empty if no further attempt should be made
+	 */
+	public Optional<Duration> nextBackoff(
+		final int failedAttempt,
+		final StartupFailureReason reason,
+		final Duration elapsed)
+	{
+		if(failedAttempt >= this.maxAttempts || !this.retryableReasons.contains(reason))
+		{
+			return Optional.empty();
+		}
+		
+		final Duration exponential = this.initialBackoff.multipliedBy(1L << Math.min(failedAttempt - 1, 20));
+		final Duration backoff = exponential.compareTo(this.maxBackoff) <= 0 ? exponential : this.maxBackoff;
+		if(elapsed.plus(backoff).compareTo(this.deadline) >= 0)
+		{
+			return Optional.empty();
+		}
+		return Optional.of(backoff);
+	}
+	
+	/**
+	 * Classifies a failure based on the types and messages of the exception chain.
+	 */
+	public StartupFailureReason classify(final Throwable failure)
+	{
+		for(Throwable current = failure; current != null; current = current.getCause())
+		{
+			final StartupFailureReason reason = this.classifySingle(current);
+			if(reason != null)
+			{
+				return reason;
+			}
+		}
+		return StartupFailureReason.UNKNOWN;
+	}
+	
+	/**
+	 * @return the reason or <code>null</code> if the exception doesn't indicate one
+	 */
+	protected StartupFailureReason classifySingle(final Throwable ex)
+	{
+		final String message = Optional.ofNullable(ex.getMessage())
+			.map(m -> m.toLowerCase(Locale.ROOT))
+			.orElse("");
+		
+		if(ex instanceof ContainerFetchException
+			|| containsAny(message, "pull access denied", "manifest unknown", "no such image"))
+		{
+			return StartupFailureReason.IMAGE_PULL;
+		}
+		if(containsAny(message, "port is already allocated", "address already in use"))
+		{
+			return StartupFailureReason.PORT_BIND;
+		}
+		if(containsAny(message, "/dev/shm", "out of memory", "oomkilled"))
+		{
+			return StartupFailureReason.SHM_OOM;
+		}
+		if(ex instanceof org.rnorth.ducttape.TimeoutException
+			|| ex instanceof java.util.concurrent.TimeoutException
+			|| message.contains("timed out"))
+		{
+			return StartupFailureReason.WAIT_TIMEOUT;
+		}
+		return null;
+	}
+	
+	protected static boolean containsAny(final String message, final String... fragments)
+	{
+		for(final String fragment : fragments)
+		{
+			if(message.contains(fragment))
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.containers.browser;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Collects how long containers took until they were ready - per image.
+ * <p>
+ * Can be used to tune the startup timeout based on real data.
+ * </p>
+ */
+public class StartupTimeStatistics
+{
+	protected static final StartupTimeStatistics DEFAULT = new StartupTimeStatistics();
+	
+	protected final Map<String, Summary> summaries = new ConcurrentHashMap<>();
+	
+	public static StartupTimeStatistics getDefault()
+	{
+		return DEFAULT;
+	}
+	
+	public void record(final String image, final Duration timeToReady)
+	{
+		this.summaries.merge(image, Summary.of(timeToReady), Summary::combine);
+	}
+	
+	/**
+	 * @return the summary of all recorded startups per image
+	 */
+	public Map<String, Summary> getSummaries()
+	{
+		return Map.copyOf(this.summaries);
+	}
+	
+	public Summary getSummary(final String image)
+	{
+		return this.summaries.get(image);
+	}
+	
+	public void clear()
+	{
+		this.summaries.clear();
+	}
+	
+	public record Summary(long count, Duration min, Duration max, Duration total)
+	{
+		public static Summary of(final Duration timeToReady)
+		{
+			return new Summary(1, timeToReady, timeToReady, timeToReady);
+		}
+		
+		public Summary combine(final Summary other)
+		{
+			return new Summary(
+				this.count + other.count,
+				this.min.compareTo(other.min) <= 0 ? this.min : other.min,
+				this.max.compareTo(other.max) >= 0 ? this.max : other.max,
+				this.total.plus(other.total));
+		}
+		
+		public Duration average()
+		{
+			return this.total.dividedBy(this.count);
+		}
+	}
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.containers.browser;
+
+import java.time.Duration;
+import java.util.List;
+
+
+/**
+ * Outcome of stopping a single container as part of a {@link BrowserContainerGroup}.
+ *
+ * @param container  the container
+ * @param duration   how long stopping took - or until the deadline was reached
+ * @param recordings the recordings that were still pending and saved while stopping
+ * @param failure    why stopping failed; <code>null</code> if it succeeded
+ * @param timedOut   if the container was not stopped within the deadline; It's still stopped in the background
+ */
+public record StopResult(
+	BrowserWebDriverContainer<?> container,
+	Duration duration,
+	List<RecordingSaveResult> recordings,
+	Throwable failure,
+	boolean timedOut)
+{
+	public static StopResult success(
+		final BrowserWebDriverContainer<?> container,
+		final Duration duration,
+		final List<RecordingSaveResult> recordings)
+	{
+		return new StopResult(container, duration, recordings, null, false);
+	}
+	
+	public static StopResult failure(
+		final BrowserWebDriverContainer<?> container,
+		final Duration duration,
+		final Throwable failure)
+	{
+		return new StopResult(container, duration, List.of(), failure, false);
+	}
+	
+	public static StopResult timedOut(final BrowserWebDriverContainer<?> container, final Duration duration)
+	{
+		return new StopResult(container, duration, List.of(), null, true);
+	}
+	
+	public boolean succeeded()
+	{
+		return this.failure == null && !this.timedOut;
+	}
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.containers.grid;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * Scaling decisions of {@link SeleniumGridContainer}.
+ */
+public final class GridAutoscaling
+{
+	private GridAutoscaling()
+	{
+	}
+	
+	/**
+	 * @param activeNodes   Nodes that are running and not being removed
+	 * @param startingNodes Nodes that are still starting; They will take queued requests
+	 * @return how many nodes should be added for the queued session requests
+	 */
+	public static int nodesToAdd(
+		final int queueSize,
+		final int activeNodes,
+		final int startingNodes,
+		final int maxNodes)
+	{
+		return Math.max(0, Math.min(queueSize - startingNodes, maxNodes - activeNodes - startingNodes));
+	}
+	
+	/**
+	 * Tracks since when each node is idle and selects the nodes that were idle for too long - while keeping the
+	 * minimum amount of nodes.
+	 *
+	 * @param activeNodes Nodes that are running and not being removed
+	 * @param busyNodes   Nodes that currently have a session
+	 * @param idleSince   Since when a node has no session; Updated by this method
+	 * @return the nodes that should be removed
+	 */
+	public static <N> List<N> selectNodesToRemove(
+		final List<N> activeNodes,
+		final Set<N> busyNodes,
+		final Map<N, Instant> idleSince,
+		final int minNodes,
+		final Duration scaleDownAfterIdle,
+		final Instant now)
+	{
+		final List<N> toRemove = new ArrayList<>();
+		for(final N node : activeNodes)
+		{
+			if(busyNodes.contains(node))
+			{
+				idleSince.remove(node);
+				continue;
+			}
+			
+			final Instant nodeIdleSince = idleSince.computeIfAbsent(node, n -> now);
+			if(activeNodes.size() - toRemove.size() > minNodes
+				&& !nodeIdleSince.plus(scaleDownAfterIdle).isAfter(now))
+			{
+				toRemove.add(node);
+			}
+		}
+		return toRemove;
+	}
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.containers.grid;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+
+
+/**
+ * The nodes of a {@link SeleniumGridContainer}.
+ * <p>
+ * Adding a node and closing are done while holding the same lock, so that no node is added after the grid was
+ * stopped.
+ * </p>
+ *
+ * @param <N> type of the node
+ */
+public class GridNodes<N>
+{
+	protected final List<N> nodes = new CopyOnWriteArrayList<>();
+	// Still part of the nodes, so that tests that got a session in the meantime are completed normally
+	protected final Set<N> drainingNodes = ConcurrentHashMap.newKeySet();
+	protected final Map<N, Instant> idleSince = new ConcurrentHashMap<>();
+	protected final ReentrantLock lock = new ReentrantLock();
+	protected boolean closed;
+	
+	/**
+	 * Allows adding nodes again, e.g. when the grid is restarted.
+	 */
+	public void open()
+	{
+		this.lock.lock();
+		try
+		{
+			this.closed = false;
+		}
+		finally
+		{
+			this.lock.unlock();
+		}
+	}
+	
+	/**
+	 * No further nodes can be added.
+	 *
+	 * @return the nodes that were removed and need to be stopped
+	 */
+	public List<N> close()
+	{
+		this.lock.lock();
+		try
+		{
+			this.closed = true;
+			return this.removeAll();
+		}
+		finally
+		{
+			this.lock.unlock();
+		}
+	}
+	
+	/**
+	 * @throws IllegalStateException if the nodes are closed
+	 */
+	public void ensureOpen()
+	{
+		this.lock.lock();
+		try
+		{
+			if(this.closed)
+			{
+				throw new IllegalStateException("Grid is stopped");
+			}
+		}
+		finally
+		{
+			this.lock.unlock();
+		}
+	}
+	
+	/**
+	 * @return <code>false</code> if the node was not added because the nodes are closed
+	 */
+	public boolean addIfOpen(final N node)
+	{
+		this.lock.lock();
+		try
+		{
+			if(this.closed)
+			{
+				return false;
+			}
+			this.nodes.add(node);
+			return true;
+		}
+		finally
+		{
+			this.lock.unlock();
+		}
+	}
+	
+	public boolean remove(final N node)
+	{
+		this.idleSince.remove(node);
+		this.drainingNodes.remove(node);
+		return this.nodes.remove(node);
+	}
+	
+	/**
+	 * @return the nodes that were removed and need to be stopped
+	 */
+	public List<N> removeAll()
+	{
+		this.lock.lock();
+		try
+		{
+			final List<N> removed = List.copyOf(this.nodes);
+			this.nodes.clear();
+			this.idleSince.clear();
+			this.drainingNodes.clear();
+			return removed;
+		}
+		finally
+		{
+			this.lock.unlock();
+		}
+	}
+	
+	/**
+	 * @return <code>false</code> if the node is not part of the nodes or already draining
+	 */
+	public boolean startDraining(final N node)
+	{
+		return this.nodes.contains(node) && this.drainingNodes.add(node);
+	}
+	
+	public void stopDraining(final N node)
+	{
+		this.drainingNodes.remove(node);
+	}
+	
+	public List<N> all()
+	{
+		return List.copyOf(this.nodes);
+	}
+	
+	/**
+	 * @return the nodes that are not draining
+	 */
+	public List<N> active()
+	{
+		return this.nodes.stream()
+			.filter(node -> !this.drainingNodes.contains(node))
+			.toList();
+	}
+	
+	public int size()
+	{
+		return this.nodes.size();
+	}
+	
+	/**
+	 * @return since when each node has no session; Maintained by {@link GridAutoscaling}
+	 */
+	public Map<N, Instant> idleSince()
+	{
+		return this.idleSince;
+	}
+}
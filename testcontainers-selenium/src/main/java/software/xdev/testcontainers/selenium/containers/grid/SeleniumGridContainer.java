@@ -0,0 +1,444 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.containers.grid;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.Network;
+import org.testcontainers.containers.wait.strategy.HostPortWaitStrategy;
+import org.testcontainers.containers.wait.strategy.LogMessageWaitStrategy;
+import org.testcontainers.containers.wait.strategy.WaitAllStrategy;
+import org.testcontainers.containers.wait.strategy.WaitStrategy;
+import org.testcontainers.lifecycle.TestDescription;
+import org.testcontainers.lifecycle.TestLifecycleAware;
+import org.testcontainers.utility.DockerImageName;
+
+import com.github.dockerjava.api.command.InspectContainerResponse;
+
+import software.xdev.testcontainers.selenium.concurrent.NamedDaemonThreadFactory;
+import software.xdev.testcontainers.selenium.containers.browser.SeleniumStatusClient;
+import software.xdev.testcontainers.selenium.containers.browser.SeleniumUtils;
+
+
+/**
+ * A Selenium Grid consisting of a hub and multiple browser nodes on a shared network.
+ * <p>
+ * The hub is this container; nodes are created using the node factory, so that they can be configured like any
+ * other {@link software.xdev.testcontainers.selenium.containers.browser.BrowserWebDriverContainer} (VNC, recording,
+ * timezone, ...).
+ * </p>
+ * <p>
+ * If the maximum amount of nodes is higher than the minimum, the grid scales automatically:
+ * <ul>
+ *     <li>When new session requests are queued at the hub, nodes are added</li>
+ *     <li>When a node had no session for {@link #withScaleDownAfterIdle(Duration) some time}, it's drained and
+ *     removed once it deregistered from the hub</li>
+ * </ul>
+ * </p>
+ */
+@SuppressWarnings({"java:S119", "java:S2160"})
+public class SeleniumGridContainer<SELF extends SeleniumGridContainer<SELF>>
+	extends GenericContainer<SELF>
+	implements TestLifecycleAware
+{
+	private static final Logger LOG = LoggerFactory.getLogger(SeleniumGridContainer.class);
+	
+	public static final DockerImageName HUB_IMAGE = DockerImageName.parse("selenium/hub");
+	
+	public static final int HUB_PORT = 4444;
+	public static final int EVENT_BUS_PUBLISH_PORT = 4442;
+	public static final int EVENT_BUS_SUBSCRIBE_PORT = 4443;
+	
+	public static final String LOG_MSG_WAIT_STRATEGY_REGEX = ".*(Started Selenium Hub).*\n";
+	
+	protected static final ExecutorService NODE_EXECUTOR =
+		Executors.newCachedThreadPool(new NamedDaemonThreadFactory("selenium-grid-node"));
+	
+	protected final Supplier<? extends SeleniumGridNodeContainer<?>> nodeFactory;
+	protected int minNodes = 1;
+	protected int maxNodes = 1;
+	protected Duration autoscaleInterval = Duration.ofSeconds(2);
+	protected Duration scaleDownAfterIdle = Duration.ofSeconds(30);
+	protected Duration drainTimeout = Duration.ofMinutes(5);
+	
+	protected final GridNodes<SeleniumGridNodeContainer<?>> nodes = new GridNodes<>();
+	protected final AtomicInteger startingNodes = new AtomicInteger();
+	protected final AtomicInteger nodeCounter = new AtomicInteger();
+	protected ScheduledExecutorService autoscaler;
+	protected Network ownedNetwork;
+	
+	/**
+	 * Uses the hub image that matches the Selenium version on the classpath.
+	 *
+	 * @param nodeFactory Creates new - not yet started - nodes
+	 */
+	public SeleniumGridContainer(final Supplier<? extends SeleniumGridNodeContainer<?>> nodeFactory)
+	{
+		this(HUB_IMAGE.withTag(SeleniumUtils.getClasspathSeleniumVersion()), nodeFactory);
+	}
+	
+	public SeleniumGridContainer(
+		final DockerImageName hubImage,
+		final Supplier<? extends SeleniumGridNodeContainer<?>> nodeFactory)
+	{
+		super(hubImage);
+		this.nodeFactory = nodeFactory;
+		this.waitStrategy = this.getDefaultWaitStrategy();
+	}
+	
+	protected WaitStrategy getDefaultWaitStrategy()
+	{
+		return new WaitAllStrategy()
+			.withStrategy(new LogMessageWaitStrategy()
+				.withRegEx(LOG_MSG_WAIT_STRATEGY_REGEX))
+			.withStrategy(new HostPortWaitStrategy())
+			.withStartupTimeout(Duration.of(60, ChronoUnit.SECONDS));
+	}
+	
+	// region Config
+	
+	/**
+	 * Uses a fixed amount of nodes.
+	 */
+	public SELF withNodes(final int nodes)
+	{
+		return this.withNodes(nodes, nodes);
+	}
+	
+	/**
+	 * @param minNodes Nodes that are started together with the hub and are always kept
+	 * @param maxNodes Upper limit of nodes when scaling up
+	 */
+	public SELF withNodes(final int minNodes, final int maxNodes)
+	{
+		if(minNodes < 0 || maxNodes < minNodes || maxNodes < 1)
+		{
+			throw new IllegalArgumentException("Requires 0 <= minNodes <= maxNodes and maxNodes >= 1");
+		}
+		this.minNodes = minNodes;
+		this.maxNodes = maxNodes;
+		return this.self();
+	}
+	
+	/**
+	 * @param autoscaleInterval How often the session queue of the hub is checked
+	 */
+	public SELF withAutoscaleInterval(final Duration autoscaleInterval)
+	{
+		this.autoscaleInterval = autoscaleInterval;
+		return this.self();
+	}
+	
+	/**
+	 * @param scaleDownAfterIdle A node (above the minimum) that had no session for this duration is removed
+	 */
+	public SELF withScaleDownAfterIdle(final Duration scaleDownAfterIdle)
+	{
+		this.scaleDownAfterIdle = scaleDownAfterIdle;
+		return this.self();
+	}
+	
+	/**
+	 * @param drainTimeout How long a drained node may take to complete its sessions and deregister from the hub
+	 *                     before it's stopped anyway
+	 */
+	public SELF withDrainTimeout(final Duration drainTimeout)
+	{
+		this.drainTimeout = drainTimeout;
+		return this.self();
+	}
+	// endregion
+	
+	@Override
+	protected void configure()
+	{
+		// Hub + Nodes must be able to communicate
+		if(this.getNetwork() == null)
+		{
+			this.ownedNetwork = Network.newNetwork();
+			this.withNetwork(this.ownedNetwork);
+		}
+		
+		this.addExposedPorts(HUB_PORT);
+	}
+	
+	@Override
+	protected void containerIsStarted(final InspectContainerResponse containerInfo, final boolean reused)
+	{
+		this.nodes.open();
+		
+		try
+		{
+			// Completes once all nodes are started or failed
+			CompletableFuture.allOf(IntStream.range(0, this.minNodes)
+					.mapToObj(i -> CompletableFuture.runAsync(this::addNode, NODE_EXECUTOR))
+					.toArray(CompletableFuture[]::new))
+				.join();
+		}
+		catch(final CompletionException ex)
+		{
+			// Otherwise the nodes that started are leaked
+			this.stopNodes(this.nodes.removeAll());
+			throw ex;
+		}
+		
+		if(this.maxNodes > this.minNodes)
+		{
+			this.autoscaler = Executors.newSingleThreadScheduledExecutor(
+				new NamedDaemonThreadFactory("selenium-grid-autoscaler"));
+			this.autoscaler.scheduleWithFixedDelay(
+				this::autoscale,
+				this.autoscaleInterval.toMillis(),
+				this.autoscaleInterval.toMillis(),
+				TimeUnit.MILLISECONDS);
+		}
+	}
+	
+	// region Nodes
+	
+	/**
+	 * Starts a new node and registers it at the hub.
+	 *
+	 * @throws IllegalStateException if the grid is stopped
+	 */
+	public SeleniumGridNodeContainer<?> addNode()
+	{
+		this.nodes.ensureOpen();
+		
+		final SeleniumGridNodeContainer<?> node = this.nodeFactory.get();
+		node.withNetwork(this.getNetwork());
+		node.withEventBus(this.getHubHost(), EVENT_BUS_PUBLISH_PORT, EVENT_BUS_SUBSCRIBE_PORT);
+		node.withNodeName("node" + this.nodeCounter.incrementAndGet());
+		
+		try
+		{
+			node.start();
+		}
+		catch(final RuntimeException ex)
+		{
+			node.stopQuietly();
+			throw ex;
+		}
+		
+		if(this.nodes.addIfOpen(node))
+		{
+			LOG.info("Added node {}; Nodes: {}", node.getNodeName(), this.nodes.size());
+			return node;
+		}
+		// The grid was stopped while the node was starting
+		node.stopQuietly();
+		throw new IllegalStateException("Grid is stopped");
+	}
+	
+	public void removeNode(final SeleniumGridNodeContainer<?> node)
+	{
+		if(this.nodes.remove(node))
+		{
+			node.stopQuietly();
+			LOG.info("Removed node {}; Nodes: {}", node.getNodeName(), this.nodes.size());
+		}
+	}
+	
+	/**
+	 * Removes the node without interrupting sessions: The hub no longer assigns sessions to the node and it's stopped
+	 * once it completed its sessions and deregistered.
+	 */
+	public void drainAndRemoveNode(final SeleniumGridNodeContainer<?> node)
+	{
+		if(!this.nodes.startDraining(node))
+		{
+			return;
+		}
+		
+		try
+		{
+			final String nodeId = node.createStatusClient().fetchNodeId();
+			final SeleniumStatusClient hubStatusClient = this.createStatusClient();
+			hubStatusClient.drainNode(nodeId);
+			LOG.debug("Draining node {} ({})", node.getNodeName(), nodeId);
+			
+			if(!hubStatusClient.awaitNodeDeregistered(nodeId, this.drainTimeout, this.autoscaleInterval))
+			{
+				LOG.warn("Node {} did not deregister in time; Stopping it anyway", node.getNodeName());
+			}
+		}
+		catch(final InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			this.nodes.stopDraining(node);
+			return;
+		}
+		catch(final Exception ex)
+		{
+			// The node might be in use -> Don't stop it
+			LOG.warn("Failed to drain node {}; Keeping it", node.getNodeName(), ex);
+			this.nodes.stopDraining(node);
+			return;
+		}
+		this.removeNode(node);
+	}
+	
+	protected void stopNodes(final List<SeleniumGridNodeContainer<?>> nodesToStop)
+	{
+		CompletableFuture.allOf(nodesToStop.stream()
+				.map(node -> CompletableFuture.runAsync(node::stopQuietly, NODE_EXECUTOR))
+				.toArray(CompletableFuture[]::new))
+			.join();
+	}
+	
+	/**
+	 * @return the host of the hub inside the network
+	 */
+	protected String getHubHost()
+	{
+		return this.getNetworkAliases().get(0);
+	}
+	
+	public List<SeleniumGridNodeContainer<?>> getNodes()
+	{
+		return this.nodes.all();
+	}
+	// endregion
+	
+	// region Autoscaling
+	protected void autoscale()
+	{
+		try
+		{
+			final int queueSize = this.createStatusClient().fetchSessionQueueSize();
+			if(queueSize > 0)
+			{
+				this.scaleUp(queueSize);
+			}
+			else
+			{
+				this.scaleDownIdleNodes();
+			}
+		}
+		catch(final Exception ex)
+		{
+			// Must not be thrown, otherwise the autoscaler stops
+			LOG.warn("Failed to autoscale", ex);
+		}
+	}
+	
+	protected void scaleUp(final int queueSize)
+	{
+		final int missing = GridAutoscaling.nodesToAdd(
+			queueSize,
+			this.nodes.active().size(),
+			this.startingNodes.get(),
+			this.maxNodes);
+		
+		for(int i = 0; i < missing; i++)
+		{
+			this.startingNodes.incrementAndGet();
+			CompletableFuture.runAsync(this::addNode, NODE_EXECUTOR)
+				.whenComplete((v, ex) -> {
+					this.startingNodes.decrementAndGet();
+					if(ex != null)
+					{
+						LOG.warn("Failed to add node", ex);
+					}
+				});
+		}
+	}
+	
+	protected void scaleDownIdleNodes()
+	{
+		final List<SeleniumGridNodeContainer<?>> candidates = this.nodes.active();
+		final Set<SeleniumGridNodeContainer<?>> busyNodes = candidates.stream()
+			.filter(node -> !node.getActiveSessionIds().isEmpty())
+			.collect(Collectors.toSet());
+		
+		GridAutoscaling.selectNodesToRemove(
+			candidates,
+			busyNodes,
+			this.nodes.idleSince(),
+			this.minNodes,
+			this.scaleDownAfterIdle,
+			Instant.now())
+			.forEach(node -> CompletableFuture.runAsync(() -> this.drainAndRemoveNode(node), NODE_EXECUTOR));
+	}
+	// endregion
+	
+	protected SeleniumStatusClient createStatusClient()
+	{
+		return new SeleniumStatusClient(URI.create("http://" + this.getHost() + ":" + this.getMappedPort(HUB_PORT)));
+	}
+	
+	public URI getSeleniumAddressURI()
+	{
+		return URI.create("http://" + this.getHost() + ":" + this.getMappedPort(HUB_PORT) + "/wd/hub");
+	}
+	
+	// region Test lifecycle
+	@Override
+	public void beforeTest(final TestDescription description)
+	{
+		this.nodes.all().forEach(node -> node.beforeTest(description));
+	}
+	
+	/**
+	 * Forwarded to all nodes: Every node records its own display and retains the recording if required.
+	 */
+	@Override
+	public void afterTest(final TestDescription description, final Optional<Throwable> throwable)
+	{
+		this.nodes.all().forEach(node -> node.afterTest(description, throwable));
+	}
+	// endregion
+	
+	@Override
+	public void stop()
+	{
+		if(this.autoscaler != null)
+		{
+			this.autoscaler.shutdownNow();
+			this.autoscaler = null;
+		}
+		
+		// No further nodes are added
+		this.stopNodes(this.nodes.close());
+		
+		super.stop();
+		
+		if(this.ownedNetwork != null)
+		{
+			this.ownedNetwork.close();
+			this.ownedNetwork = null;
+		}
+	}
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.containers.grid;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.wait.strategy.HostPortWaitStrategy;
+import org.testcontainers.containers.wait.strategy.LogMessageWaitStrategy;
+import org.testcontainers.containers.wait.strategy.WaitAllStrategy;
+import org.testcontainers.containers.wait.strategy.WaitStrategy;
+import org.testcontainers.lifecycle.TestDescription;
+import org.testcontainers.utility.DockerImageName;
+
+import software.xdev.testcontainers.selenium.containers.browser.BrowserWebDriverContainer;
+
+
+/**
+ * A browser node of a {@link SeleniumGridContainer}, based on SeleniumHQ's node images.
+ * <p>
+ * Supports the same configuration (VNC, recording, timezone, ...) as a standalone {@link BrowserWebDriverContainer}.
+ * </p>
+ */
+@SuppressWarnings({"java:S119", "java:S2160"})
+public class SeleniumGridNodeContainer<SELF extends SeleniumGridNodeContainer<SELF>>
+	extends BrowserWebDriverContainer<SELF>
+{
+	private static final Logger LOG = LoggerFactory.getLogger(SeleniumGridNodeContainer.class);
+	
+	public static final DockerImageName CHROME_NODE_IMAGE = DockerImageName.parse("selenium/node-chrome");
+	public static final DockerImageName CHROMIUM_NODE_IMAGE = DockerImageName.parse("selenium/node-chromium");
+	public static final DockerImageName FIREFOX_NODE_IMAGE = DockerImageName.parse("selenium/node-firefox");
+	public static final DockerImageName EDGE_NODE_IMAGE = DockerImageName.parse("selenium/node-edge");
+	
+	public static final int NODE_PORT = 5555;
+	
+	// Logged once the node is registered at the hub
+	public static final String LOG_MSG_NODE_ADDED_REGEX = ".*(Node has been added).*\n";
+	
+	protected String nodeName;
+	
+	public SeleniumGridNodeContainer(final String dockerImageName)
+	{
+		this(DockerImageName.parse(dockerImageName));
+	}
+	
+	public SeleniumGridNodeContainer(final DockerImageName dockerImageName)
+	{
+		super(dockerImageName);
+	}
+	
+	@Override
+	protected WaitStrategy getDefaultWaitStrategy()
+	{
+		return new WaitAllStrategy()
+			.withStrategy(new LogMessageWaitStrategy()
+				.withRegEx(LOG_MSG_NODE_ADDED_REGEX))
+			.withStrategy(new HostPortWaitStrategy())
+			.withStartupTimeout(Duration.of(60, ChronoUnit.SECONDS));
+	}
+	
+	/**
+	 * Connects the node to the event bus of the hub.
+	 *
+	 * @param hubHost The host (e.g. network alias) of the hub inside the network
+	 */
+	public SELF withEventBus(final String hubHost, final int publishPort, final int subscribePort)
+	{
+		this.addEnv("SE_EVENT_BUS_HOST", hubHost);
+		this.addEnv("SE_EVENT_BUS_PUBLISH_PORT", String.valueOf(publishPort));
+		this.addEnv("SE_EVENT_BUS_SUBSCRIBE_PORT", String.valueOf(subscribePort));
+		return this.self();
+	}
+	
+	/**
+	 * @param nodeName Name of the node inside the grid; Appended to the names of recordings, as every node records
+	 *                 its own display
+	 */
+	public SELF withNodeName(final String nodeName)
+	{
+		this.nodeName = nodeName;
+		return this.self();
+	}
+	
+	public String getNodeName()
+	{
+		return this.nodeName;
+	}
+	
+	@Override
+	public int getSeleniumPort()
+	{
+		return NODE_PORT;
+	}
+	
+	/**
+	 * Stops the node; Failures are only logged.
+	 */
+	public void stopQuietly()
+	{
+		try
+		{
+			this.stop();
+		}
+		catch(final Exception ex)
+		{
+			LOG.warn("Failed to stop node {}", this.nodeName, ex);
+		}
+	}
+	
+	@Override
+	protected String getRecordingTestName(final TestDescription description)
+	{
+		final String testName = super.getRecordingTestName(description);
+		return this.nodeName != null ? testName + "-" + this.nodeName : testName;
+	}
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.containers.recorder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import org.testcontainers.containers.Container;
+
+import software.xdev.testcontainers.selenium.containers.browser.BrowserWebDriverContainer;
+
+
+/**
+ * Captures the X display of a browser container by executing a command inside it.
+ * <p>
+ * Unlike a WebDriver screenshot this doesn't interact with the sessions of the test.<br/>
+ * The {@link #DEFAULT_COMMAND default command} requires ImageMagick inside the browser image.
+ * </p>
+ */
+public class DisplayScreenshotCapture implements Supplier<byte[]>
+{
+	// Writes a PNG of the whole X display to stdout
+	public static final String DEFAULT_COMMAND =
+		"import -display :" + SeleniumRecordingContainer.DISPLAY_NUMBER + " -window root png:-";
+	
+	protected final BrowserWebDriverContainer<?> target;
+	protected String command = DEFAULT_COMMAND;
+	
+	public DisplayScreenshotCapture(final BrowserWebDriverContainer<?> target)
+	{
+		this.target = Objects.requireNonNull(target);
+	}
+	
+	/**
+	 * @param command Shell command that is executed inside the browser container and writes a PNG of the display to
+	 *                stdout
+	 */
+	public DisplayScreenshotCapture withCommand(final String command)
+	{
+		this.command = Objects.requireNonNull(command);
+		return this;
+	}
+	
+	/**
+	 * @return the display as PNG
+	 */
+	@Override
+	public byte[] get()
+	{
+		try
+		{
+			// execInContainer only returns text -> Encode the PNG
+			final Container.ExecResult result =
+				this.target.execInContainer("/bin/sh", "-c", this.command + " | base64 -w0");
+			// The exit code is the one of base64 -> A failed capture results in no output
+			if(result.getExitCode() != 0 || result.getStdout().isBlank())
+			{
+				throw new IllegalStateException(
+					"Failed to capture display [exitCode=" + result.getExitCode() + "]: " + result.getStderr());
+			}
+			return Base64.getMimeDecoder().decode(result.getStdout());
+		}
+		catch(final IOException ioe)
+		{
+			throw new UncheckedIOException(ioe);
+		}
+		catch(final InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Got interrupted", e);
+		}
+	}
+}
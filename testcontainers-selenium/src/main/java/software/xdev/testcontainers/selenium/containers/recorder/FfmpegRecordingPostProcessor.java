@@ -0,0 +1,310 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.containers.recorder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.Container;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.utility.DockerImageName;
+import org.testcontainers.utility.MountableFile;
+
+
+/**
+ * Trims idle parts of recordings and transcodes them using ffmpeg in a sidecar container.
+ * <p>
+ * Most of a recording usually shows a static screen, e.g. while a test waits. Frames that don't differ from the
+ * previous one are dropped (<code>mpdecimate</code>) and - if {@link #withTrimIdle(boolean) trimming} is enabled -
+ * the idle time is cut out, so that the video jumps to the next change.
+ * </p>
+ * <p>
+ * The sidecar is started on first use and kept running for further recordings until {@link #close()} is called.
+ * It uses the image of the recorder (which contains ffmpeg), so that no further image has to be pulled.
+ * </p>
+ */
+public class FfmpegRecordingPostProcessor implements RecordingPostProcessor
+{
+	private static final Logger LOG = LoggerFactory.getLogger(FfmpegRecordingPostProcessor.class);
+	
+	protected static final String WORK_DIRECTORY = "/tmp/post-processing/";
+	public static final Set<String> DEFAULT_SUPPORTED_EXTENSIONS = Set.of("mp4", "flv", "mkv", "webm", "avi", "mov");
+	
+	protected DockerImageName image = SeleniumRecordingContainer.DEFAULT_IMAGE;
+	protected boolean trimIdle = true;
+	protected String codec = "libx264";
+	protected String preset = "veryfast";
+	protected int crf = 30;
+	protected String fileExtension;
+	protected boolean keepOriginal;
+	protected Set<String> supportedExtensions = DEFAULT_SUPPORTED_EXTENSIONS;
+	
+	protected final ReentrantLock sidecarLock = new ReentrantLock();
+	protected GenericContainer<?> sidecar;
+	
+	// region Config
+	public FfmpegRecordingPostProcessor withImage(final DockerImageName image)
+	{
+		this.image = image;
+		return this;
+	}
+	
+	/**
+	 * @param trimIdle Cut out the time in which nothing changed; Otherwise only duplicate frames are dropped and the
+	 *                 timing is kept
+	 */
+	public FfmpegRecordingPostProcessor withTrimIdle(final boolean trimIdle)
+	{
+		this.trimIdle = trimIdle;
+		return this;
+	}
+	
+	/**
+	 * @param codec         ffmpeg video codec, e.g. <code>libx265</code> or <code>libvpx-vp9</code>
+	 * @param fileExtension Extension (container format) of the output; <code>null</code> keeps the original
+	 */
+	public FfmpegRecordingPostProcessor withCodec(final String codec, final String fileExtension)
+	{
+		this.codec = codec;
+		this.fileExtension = fileExtension;
+		return this;
+	}
+	
+	public FfmpegRecordingPostProcessor withPreset(final String preset)
+	{
+		this.preset = preset;
+		return this;
+	}
+	
+	/**
+	 * @param crf Constant rate factor; Higher = smaller and worse quality
+	 */
+	public FfmpegRecordingPostProcessor withCrf(final int crf)
+	{
+		this.crf = crf;
+		return this;
+	}
+	
+	/**
+	 * @param keepOriginal Keep the original recording instead of replacing it
+	 */
+	public FfmpegRecordingPostProcessor withKeepOriginal(final boolean keepOriginal)
+	{
+		this.keepOriginal = keepOriginal;
+		return this;
+	}
+	
+	/**
+	 * @param supportedExtensions Recordings with other extensions (e.g. screenshot archives) are not processed
+	 */
+	public FfmpegRecordingPostProcessor withSupportedExtensions(final Set<String> supportedExtensions)
+	{
+		this.supportedExtensions = Set.copyOf(supportedExtensions);
+		return this;
+	}
+	// endregion
+	
+	@Override
+	public boolean supports(final Path recording)
+	{
+		final String fileName = recording.getFileName().toString().toLowerCase(Locale.ROOT);
+		return fileName.contains(".")
+			&& this.supportedExtensions.contains(fileName.substring(fileName.lastIndexOf('.') + 1));
+	}
+	
+	@Override
+	public PostProcessingResult process(final Path recording)
+	{
+		final long startNanos = System.nanoTime();
+		final GenericContainer<?> container = this.sidecar();
+		
+		final String fileName = recording.getFileName().toString();
+		final String originalExtension = fileName.contains(".") ? fileName.substring(fileName.lastIndexOf('.')) : "";
+		final String outputExtension = this.fileExtension != null ? "." + this.fileExtension : originalExtension;
+		
+		final String workDirectory = WORK_DIRECTORY + UUID.randomUUID() + "/";
+		final String containerInput = workDirectory + "input" + originalExtension;
+		final String containerOutput = workDirectory + "output" + outputExtension;
+		try
+		{
+			container.copyFileToContainer(MountableFile.forHostPath(recording), containerInput);
+			this.exec(container, this.buildCommand(containerInput, containerOutput));
+			
+			final Path output = this.resolveOutput(recording, fileName, originalExtension, outputExtension);
+			final Path tempOutput = Files.createTempFile(recording.getParent(), fileName, ".tmp");
+			try
+			{
+				container.copyFileFromContainer(containerOutput, tempOutput.toString());
+				Files.move(tempOutput, output, StandardCopyOption.REPLACE_EXISTING);
+			}
+			finally
+			{
+				Files.deleteIfExists(tempOutput);
+			}
+			
+			final long inputBytes = Files.size(recording);
+			if(!this.keepOriginal && !recording.equals(output))
+			{
+				Files.delete(recording);
+			}
+			
+			final PostProcessingResult result = new PostProcessingResult(
+				recording,
+				output,
+				inputBytes,
+				Files.size(output),
+				Duration.ofNanos(System.nanoTime() - startNanos));
+			LOG.debug("Post processed {} in {}ms", output, result.duration().toMillis());
+			return result;
+		}
+		catch(final IOException ioe)
+		{
+			throw new UncheckedIOException(ioe);
+		}
+		catch(final InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Got interrupted", e);
+		}
+		finally
+		{
+			this.cleanUp(container, workDirectory);
+		}
+	}
+	
+	protected Path resolveOutput(
+		final Path recording,
+		final String fileName,
+		final String originalExtension,
+		final String outputExtension)
+	{
+		final String baseName = fileName.substring(0, fileName.length() - originalExtension.length());
+		if(this.keepOriginal)
+		{
+			return recording.resolveSibling(baseName + "-processed" + outputExtension);
+		}
+		return recording.resolveSibling(baseName + outputExtension);
+	}
+	
+	protected List<String> buildCommand(final String input, final String output)
+	{
+		final List<String> command = new ArrayList<>(List.of(
+			"ffmpeg", "-hide_banner", "-loglevel", "error", "-y",
+			"-i", input));
+		if(this.trimIdle)
+		{
+			// Drop duplicate frames and close the resulting gaps
+			command.addAll(List.of("-vf", "mpdecimate,setpts=N/FRAME_RATE/TB"));
+		}
+		else
+		{
+			command.addAll(List.of("-vf", "mpdecimate", "-fps_mode", "vfr"));
+		}
+		command.addAll(List.of(
+			"-an",
+			"-c:v", this.codec,
+			"-preset", this.preset,
+			"-crf", String.valueOf(this.crf),
+			"-pix_fmt", "yuv420p",
+			output));
+		return command;
+	}
+	
+	protected void exec(final GenericContainer<?> container, final List<String> command)
+		throws IOException, InterruptedException
+	{
+		final Container.ExecResult result = container.execInContainer(command.toArray(String[]::new));
+		if(result.getExitCode() != 0)
+		{
+			throw new IllegalStateException("ffmpeg failed with exit code " + result.getExitCode() + ": "
+				+ result.getStderr());
+		}
+	}
+	
+	protected void cleanUp(final GenericContainer<?> container, final String workDirectory)
+	{
+		try
+		{
+			container.execInContainer("rm", "-rf", workDirectory);
+		}
+		catch(final IOException ex)
+		{
+			LOG.debug("Failed to clean up {}", workDirectory, ex);
+		}
+		catch(final InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	protected GenericContainer<?> sidecar()
+	{
+		this.sidecarLock.lock();
+		try
+		{
+			if(this.sidecar == null || !this.sidecar.isRunning())
+			{
+				final GenericContainer<?> newSidecar = this.createSidecar();
+				newSidecar.start();
+				this.sidecar = newSidecar;
+			}
+			return this.sidecar;
+		}
+		finally
+		{
+			this.sidecarLock.unlock();
+		}
+	}
+	
+	@SuppressWarnings("resource")
+	protected GenericContainer<?> createSidecar()
+	{
+		return new GenericContainer<>(this.image)
+			.withCreateContainerCmdModifier(cmd -> cmd
+				.withEntrypoint("/bin/sh", "-c")
+				.withCmd(SeleniumRecordingContainer.SEGMENTED_KEEP_ALIVE_COMMAND));
+	}
+	
+	@Override
+	public void close()
+	{
+		this.sidecarLock.lock();
+		try
+		{
+			if(this.sidecar != null)
+			{
+				this.sidecar.stop();
+				this.sidecar = null;
+			}
+		}
+		finally
+		{
+			this.sidecarLock.unlock();
+		}
+	}
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.containers.recorder;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+
+/**
+ * Outcome of a {@link RecordingPostProcessor}.
+ *
+ * @param input       The original recording
+ * @param output      The processed recording
+ * @param inputBytes  Size of the original recording
+ * @param outputBytes Size of the processed recording
+ * @param duration    How long processing took
+ */
+public record PostProcessingResult(
+	Path input,
+	Path output,
+	long inputBytes,
+	long outputBytes,
+	Duration duration)
+{
+	/**
+	 * @return how many times smaller the processed recording is, e.g. <code>4.0</code> = a quarter of the size
+	 */
+	public double compressionRatio()
+	{
+		return this.outputBytes > 0 ? (double)this.inputBytes / this.outputBytes : 0;
+	}
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.containers.recorder;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.testcontainers.containers.ContainerLaunchException;
+import org.testcontainers.containers.wait.strategy.AbstractWaitStrategy;
+
+
+/**
+ * Waits until the container signals that it's ready - instead of polling for it.
+ * <p>
+ * The signal is usually completed by a log consumer that is attached to the container.
+ * </p>
+ */
+public class ReadySignalWaitStrategy extends AbstractWaitStrategy
+{
+	protected final Supplier<? extends Future<?>> readySignalSupplier;
+	
+	/**
+	 * @param readySignalSupplier Provides the signal of the current start
+	 */
+	public ReadySignalWaitStrategy(final Supplier<? extends Future<?>> readySignalSupplier)
+	{
+		this.readySignalSupplier = readySignalSupplier;
+	}
+	
+	@Override
+	protected void waitUntilReady()
+	{
+		try
+		{
+			this.readySignalSupplier.get().get(this.startupTimeout.toMillis(), TimeUnit.MILLISECONDS);
+		}
+		catch(final TimeoutException ex)
+		{
+			throw new ContainerLaunchException(
+				"Timed out after " + this.startupTimeout + " waiting for the container to signal readiness", ex);
+		}
+		catch(final ExecutionException ex)
+		{
+			throw new ContainerLaunchException("Container failed before it was ready", ex);
+		}
+		catch(final InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Got interrupted", e);
+		}
+	}
+}
@@ -16,17 +16,34 @@
 package software.xdev.testcontainers.selenium.containers.recorder;
 
 import java.nio.file.Path;
+import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.Future;
+import java.util.function.Supplier;
 
 import org.testcontainers.containers.GenericContainer;
 import org.testcontainers.images.RemoteDockerImage;
 import org.testcontainers.utility.DockerImageName;
 
+import com.github.dockerjava.api.command.InspectContainerResponse;
+
+import software.xdev.testcontainers.selenium.metrics.LifecycleMetrics;
+import software.xdev.testcontainers.selenium.metrics.LifecycleMetricsListener;
+import software.xdev.testcontainers.selenium.metrics.LifecyclePhase;
+import software.xdev.testcontainers.selenium.resources.ResourceLimits;
+
 
 @SuppressWarnings("java:S119")
 public abstract class RecordingContainer<SELF extends RecordingContainer<SELF>>
 	extends GenericContainer<SELF>
 {
+	protected boolean recordingPaused;
+	
+	protected LifecycleMetricsListener metricsListener = LifecycleMetricsListener.NOOP;
+	protected String metricsBrowser = LifecycleMetrics.UNKNOWN;
+	
+	protected ResourceLimits resourceLimits;
+	
 	protected RecordingContainer(final DockerImageName dockerImageName)
 	{
 		super(dockerImageName);
@@ -51,5 +68,144 @@ public abstract class RecordingContainer<SELF extends RecordingContainer<SELF>>
 		super(image);
 	}
 	
+	// region Resources
+	
+	/**
+	 * @param resourceLimits CPU and memory limits of the recorder; Prevents that encoding slows down the browser
+	 */
+	public SELF withResourceLimits(final ResourceLimits resourceLimits)
+	{
+		if(this.resourceLimits == null)
+		{
+			this.withCreateContainerCmdModifier(cmd -> this.resourceLimits.applyTo(cmd.getHostConfig()));
+		}
+		this.resourceLimits = Objects.requireNonNull(resourceLimits);
+		return this.self();
+	}
+	
+	public ResourceLimits getResourceLimits()
+	{
+		return this.resourceLimits != null ? this.resourceLimits : ResourceLimits.none();
+	}
+	// endregion
+	
+	// region Metrics
+	public SELF withMetricsListener(final LifecycleMetricsListener metricsListener)
+	{
+		this.metricsListener = Objects.requireNonNull(metricsListener);
+		return this.self();
+	}
+	
+	/**
+	 * @param metricsBrowser The browser that is recorded; Used as tag for the metrics
+	 */
+	public SELF withMetricsBrowser(final String metricsBrowser)
+	{
+		this.metricsBrowser = Objects.requireNonNull(metricsBrowser);
+		return this.self();
+	}
+	
+	protected Map<String, String> metricsTags()
+	{
+		return LifecycleMetrics.tags(LifecycleMetrics.imageOf(this), this.metricsBrowser);
+	}
+	
+	protected void timePhase(final LifecyclePhase phase, final Runnable action)
+	{
+		LifecycleMetrics.time(this.metricsListener, phase, this::metricsTags, action);
+	}
+	
+	protected <T> T timePhase(final LifecyclePhase phase, final Supplier<T> action)
+	{
+		return LifecycleMetrics.time(this.metricsListener, phase, this::metricsTags, action);
+	}
+	
+	@Override
+	protected void doStart()
+	{
+		this.timePhase(LifecyclePhase.RECORDER_START, super::doStart);
+	}
+	
+	@Override
+	public void stop()
+	{
+		if(this.getContainerId() == null)
+		{
+			super.stop();
+			return;
+		}
+		this.timePhase(LifecyclePhase.CONTAINER_STOP, super::stop);
+	}
+	// endregion
+	
 	public abstract Path saveRecordingToFile(Path directory, String fileNameWithoutExtension);
+	
+	/**
+	 * @return <code>false</code> if the recorder doesn't start a Docker container - and therefore e.g. needs no
+	 * network to reach the browser
+	 */
+	public boolean runsInContainer()
+	{
+		return true;
+	}
+	
+	/**
+	 * @return <code>true</code> if the recorder keeps recording after {@link #saveRecordingToFile(Path, String)}, so
+	 * that multiple recordings can be created without restarting the container
+	 */
+	public boolean supportsMultipleRecordings()
+	{
+		return false;
+	}
+	
+	/**
+	 * Discards everything that was recorded so far and continues with a new recording.
+	 * <p>
+	 * Only has an effect when {@link #supportsMultipleRecordings()} is <code>true</code>; Otherwise this does
+	 * nothing.
+	 * </p>
+	 */
+	public void discardRecording()
+	{
+		// Single recording per container -> Nothing can be discarded
+	}
+	
+	// region Pause
+	
+	/**
+	 * Pauses the recording by freezing the container, so that no CPU is spent on encoding frames.
+	 * <p>
+	 * The paused time is not part of the recording.
+	 * </p>
+	 */
+	public synchronized void pauseRecording()
+	{
+		if(!this.recordingPaused && this.getContainerId() != null)
+		{
+			this.dockerClient.pauseContainerCmd(this.getContainerId()).exec();
+			this.recordingPaused = true;
+		}
+	}
+	
+	public synchronized void resumeRecording()
+	{
+		if(this.recordingPaused && this.getContainerId() != null)
+		{
+			this.dockerClient.unpauseContainerCmd(this.getContainerId()).exec();
+		}
+		this.recordingPaused = false;
+	}
+	
+	public synchronized boolean isRecordingPaused()
+	{
+		return this.recordingPaused;
+	}
+	
+	@Override
+	protected void containerIsStopping(final InspectContainerResponse containerInfo)
+	{
+		// A frozen container can't shut down gracefully
+		this.resumeRecording();
+	}
+	// endregion
 }
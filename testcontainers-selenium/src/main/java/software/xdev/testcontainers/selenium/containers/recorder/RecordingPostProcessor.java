@@ -0,0 +1,54 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.containers.recorder;
+
+import java.nio.file.Path;
+
+
+/**
+ * Processes a recording after it was saved, e.g. to reduce its size.
+ * <p>
+ * Processing is always executed in the background - never on the test thread.
+ * </p>
+ *
+ * @see FfmpegRecordingPostProcessor
+ */
+@FunctionalInterface
+public interface RecordingPostProcessor extends AutoCloseable
+{
+	/**
+	 * @param recording The saved recording
+	 * @return the result; {@link PostProcessingResult#output()} replaces the recording
+	 */
+	PostProcessingResult process(Path recording);
+	
+	/**
+	 * @return if the recording can be processed; Unsupported recordings are kept as they are
+	 */
+	default boolean supports(final Path recording)
+	{
+		return true;
+	}
+	
+	/**
+	 * Releases the resources (e.g. containers) that are used for processing.
+	 */
+	@Override
+	default void close()
+	{
+		// Nothing to release by default
+	}
+}
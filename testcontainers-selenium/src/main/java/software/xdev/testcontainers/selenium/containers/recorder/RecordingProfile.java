@@ -0,0 +1,86 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.containers.recorder;
+
+/**
+ * Presets for the trade-off between encoding costs (CPU) and video quality.
+ * <p>
+ * Large displays are downscaled and recorded with a lower frame rate, so that the amount of pixels that are encoded
+ * per second stays within the budget of the profile.
+ * </p>
+ */
+public enum RecordingProfile
+{
+	/**
+	 * For dense CI hosts: Small videos that are good enough to comprehend what happened.
+	 */
+	LOW_CPU(10, 1024, 1024L * 768 * 8, "libx264", "-preset ultrafast -tune zerolatency -crf 32"),
+	/**
+	 * Equivalent to the defaults of the Selenium recorder for common display sizes.
+	 */
+	BALANCED(15, 1600, 1360L * 1020 * 15, "libx264", "-preset ultrafast"),
+	/**
+	 * Full resolution and smooth playback; Requires noticeably more CPU.
+	 */
+	HIGH_QUALITY(24, Integer.MAX_VALUE, Long.MAX_VALUE, "libx264", "-preset veryfast -crf 20");
+	
+	public static final int MIN_FRAME_RATE = 5;
+	
+	private final int maxFrameRate;
+	private final int maxOutputWidth;
+	private final long pixelsPerSecondBudget;
+	private final String codec;
+	private final String preset;
+	
+	RecordingProfile(
+		final int maxFrameRate,
+		final int maxOutputWidth,
+		final long pixelsPerSecondBudget,
+		final String codec,
+		final String preset)
+	{
+		this.maxFrameRate = maxFrameRate;
+		this.maxOutputWidth = maxOutputWidth;
+		this.pixelsPerSecondBudget = pixelsPerSecondBudget;
+		this.codec = codec;
+		this.preset = preset;
+	}
+	
+	/**
+	 * @param displayWidth  Width of the recorded display
+	 * @param displayHeight Height of the recorded display
+	 */
+	public RecordingSettings settingsFor(final int displayWidth, final int displayHeight)
+	{
+		int outputWidth = displayWidth;
+		int outputHeight = displayHeight;
+		if(displayWidth > this.maxOutputWidth)
+		{
+			outputWidth = this.maxOutputWidth;
+			outputHeight = (int)((long)displayHeight * this.maxOutputWidth / displayWidth);
+		}
+		// Required by yuv420p
+		outputWidth -= outputWidth % 2;
+		outputHeight -= outputHeight % 2;
+		
+		final long pixelsPerFrame = Math.max(1L, (long)outputWidth * outputHeight);
+		final int frameRate = (int)Math.max(
+			MIN_FRAME_RATE,
+			Math.min(this.maxFrameRate, this.pixelsPerSecondBudget / pixelsPerFrame));
+		
+		return new RecordingSettings(outputWidth, outputHeight, frameRate, this.codec, this.preset);
+	}
+}
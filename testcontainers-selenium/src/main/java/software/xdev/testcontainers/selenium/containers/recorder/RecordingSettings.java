@@ -0,0 +1,34 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.containers.recorder;
+
+/**
+ * Concrete encoder settings for a display.
+ *
+ * @param outputWidth  Width of the video
+ * @param outputHeight Height of the video
+ * @param frameRate    Frames per second
+ * @param codec        ffmpeg video codec
+ * @param preset       Additional ffmpeg encoder arguments
+ */
+public record RecordingSettings(
+	int outputWidth,
+	int outputHeight,
+	int frameRate,
+	String codec,
+	String preset)
+{
+}
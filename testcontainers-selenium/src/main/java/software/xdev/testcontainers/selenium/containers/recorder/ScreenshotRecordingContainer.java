@@ -0,0 +1,441 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.containers.recorder;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import software.xdev.testcontainers.selenium.concurrent.NamedDaemonThreadFactory;
+import software.xdev.testcontainers.selenium.containers.browser.BrowserWebDriverContainer;
+import software.xdev.testcontainers.selenium.containers.browser.SeleniumStatusClient;
+import software.xdev.testcontainers.selenium.metrics.LifecycleMetrics;
+import software.xdev.testcontainers.selenium.metrics.LifecyclePhase;
+
+
+/**
+ * Lightweight alternative to {@link SeleniumRecordingContainer} that doesn't require a container.
+ * <p>
+ * Screenshots of the X display of the browser are taken at a fixed interval (see {@link DisplayScreenshotCapture}).
+ * Frames that are identical to the previous frame are skipped.<br/>
+ * A recording is saved as ZIP containing the PNGs in a folder (<code>display</code> or the session id). The name
+ * of each frame contains its sequence number and the time since the recording started, e.g.
+ * <code>display/000003-1500ms.png</code>.
+ * </p>
+ * <p>
+ * Alternatively screenshots of the WebDriver sessions can be taken (see {@link #withSessionScreenshots(boolean)}).
+ * </p>
+ * Usage:
+ * <pre>
+ * new BrowserWebDriverContainer(...)
+ *     .withRecordingContainerSupplier(ScreenshotRecordingContainer::new)
+ * </pre>
+ */
+@SuppressWarnings("java:S2160")
+public class ScreenshotRecordingContainer extends RecordingContainer<ScreenshotRecordingContainer>
+{
+	private static final Logger LOG = LoggerFactory.getLogger(ScreenshotRecordingContainer.class);
+	
+	public static final Duration DEFAULT_INTERVAL = Duration.ofMillis(500);
+	public static final String FILE_EXTENSION = "zip";
+	public static final String DISPLAY_FOLDER = "display";
+	
+	// Only waits for HTTP responses -> a few threads are sufficient for all recorders
+	protected static final ScheduledExecutorService DEFAULT_SCHEDULER =
+		Executors.newScheduledThreadPool(2, new NamedDaemonThreadFactory("screenshot-recorder"));
+	
+	protected final Supplier<byte[]> displayScreenshotSupplier;
+	protected final Supplier<SeleniumStatusClient> statusClientSupplier;
+	protected SeleniumStatusClient statusClient;
+	protected boolean sessionScreenshots;
+	protected int consecutiveCaptureFailures;
+	protected Duration interval = DEFAULT_INTERVAL;
+	protected ScheduledExecutorService scheduler = DEFAULT_SCHEDULER;
+	
+	protected final ReentrantLock framesLock = new ReentrantLock();
+	protected ScheduledFuture<?> sampling;
+	protected Path framesFile;
+	protected ZipOutputStream frames;
+	protected int frameCount;
+	protected int skippedFrameCount;
+	protected long recordingStartNanos;
+	protected final Map<String, byte[]> lastFrames = new HashMap<>();
+	
+	public ScreenshotRecordingContainer(final BrowserWebDriverContainer<?> target)
+	{
+		// The address is resolved when the first screenshot is taken; The browser might still be starting
+		this(new DisplayScreenshotCapture(target), target::createStatusClient);
+	}
+	
+	/**
+	 * @param displayScreenshotSupplier Provides a PNG of the display
+	 * @param statusClientSupplier      Only used when {@link #withSessionScreenshots(boolean) session screenshots}
+	 *                                  are enabled
+	 */
+	public ScreenshotRecordingContainer(
+		final Supplier<byte[]> displayScreenshotSupplier,
+		final Supplier<SeleniumStatusClient> statusClientSupplier)
+	{
+		this.displayScreenshotSupplier = Objects.requireNonNull(displayScreenshotSupplier);
+		this.statusClientSupplier = Objects.requireNonNull(statusClientSupplier);
+	}
+	
+	// region Config
+	
+	/**
+	 * @param interval Time between screenshots; Shorter intervals result in more frames but also more load on the
+	 *                 browser
+	 */
+	public ScreenshotRecordingContainer withInterval(final Duration interval)
+	{
+		if(interval.isZero() || interval.isNegative())
+		{
+			throw new IllegalArgumentException("interval must be positive");
+		}
+		this.interval = interval;
+		return this.self();
+	}
+	
+	/**
+	 * Takes screenshots of all active WebDriver sessions using Selenium's HTTP endpoint instead of capturing the
+	 * display.
+	 * <p>
+	 * <b>WARNING:</b> This interferes with the test:
+	 * <ul>
+	 *     <li>Taking a screenshot runs the user prompt handler of the session. With the default capabilities this
+	 *     dismisses any open alert/confirm/prompt before the test can assert on it.</li>
+	 *     <li>Every screenshot resets the idle timeout of the session, so abandoned sessions never expire.</li>
+	 * </ul>
+	 * Only use this when the browser image can't capture its display.
+	 * </p>
+	 */
+	public ScreenshotRecordingContainer withSessionScreenshots(final boolean sessionScreenshots)
+	{
+		this.sessionScreenshots = sessionScreenshots;
+		return this.self();
+	}
+	
+	public ScreenshotRecordingContainer withScheduler(final ScheduledExecutorService scheduler)
+	{
+		this.scheduler = Objects.requireNonNull(scheduler);
+		return this.self();
+	}
+	// endregion
+	
+	// region Lifecycle
+	
+	/**
+	 * There is no image - nothing needs to be pulled.
+	 */
+	@Override
+	public String getDockerImageName()
+	{
+		return "none";
+	}
+	
+	@Override
+	protected Map<String, String> metricsTags()
+	{
+		return LifecycleMetrics.tags(LifecycleMetrics.UNKNOWN, this.metricsBrowser);
+	}
+	
+	@Override
+	public void start()
+	{
+		this.timePhase(LifecyclePhase.RECORDER_START, this::startSampling);
+	}
+	
+	protected void startSampling()
+	{
+		this.framesLock.lock();
+		try
+		{
+			if(this.sampling != null)
+			{
+				return;
+			}
+			this.openFrames();
+			// The address of the browser changes when it's restarted
+			this.statusClient = null;
+			this.sampling = this.scheduler.scheduleWithFixedDelay(
+				this::captureFrames,
+				this.interval.toMillis(),
+				this.interval.toMillis(),
+				TimeUnit.MILLISECONDS);
+		}
+		finally
+		{
+			this.framesLock.unlock();
+		}
+	}
+	
+	@Override
+	public boolean isRunning()
+	{
+		final ScheduledFuture<?> currentSampling = this.sampling;
+		return currentSampling != null && !currentSampling.isDone();
+	}
+	
+	@Override
+	public void stop()
+	{
+		this.framesLock.lock();
+		try
+		{
+			if(this.sampling != null)
+			{
+				this.sampling.cancel(false);
+				this.sampling = null;
+			}
+			this.deleteFrames();
+		}
+		finally
+		{
+			this.framesLock.unlock();
+		}
+	}
+	
+	@Override
+	public synchronized void pauseRecording()
+	{
+		// Sampling is skipped while paused
+		this.recordingPaused = true;
+	}
+	
+	@Override
+	public synchronized void resumeRecording()
+	{
+		this.recordingPaused = false;
+	}
+	// endregion
+	
+	// region Frames
+	protected void captureFrames()
+	{
+		if(this.isRecordingPaused())
+		{
+			return;
+		}
+		
+		try
+		{
+			if(this.sessionScreenshots)
+			{
+				this.captureSessionFrames();
+			}
+			else
+			{
+				this.addFrameIfChanged(DISPLAY_FOLDER, this.displayScreenshotSupplier.get());
+			}
+			this.consecutiveCaptureFailures = 0;
+		}
+		catch(final Exception ex)
+		{
+			// Resolved again on the next attempt, e.g. the browser might have been restarted with another port
+			this.statusClient = null;
+			// Must not be thrown, otherwise no further screenshots are taken
+			if(++this.consecutiveCaptureFailures == 1)
+			{
+				LOG.warn("Failed to capture screenshots; Retrying", ex);
+			}
+			else
+			{
+				LOG.debug("Failed to capture screenshots", ex);
+			}
+		}
+	}
+	
+	protected void captureSessionFrames()
+	{
+		if(this.statusClient == null)
+		{
+			this.statusClient = this.statusClientSupplier.get();
+		}
+		for(final String sessionId : this.statusClient.fetchActiveSessionIds())
+		{
+			this.addFrameIfChanged(sessionId, this.statusClient.fetchScreenshot(sessionId));
+		}
+	}
+	
+	/**
+	 * @param folder Where the frame is stored inside the recording; Frames are compared per folder
+	 * @return <code>true</code> if the frame was added; <code>false</code> if it's identical to the previous frame
+	 */
+	protected boolean addFrameIfChanged(final String folder, final byte[] png)
+	{
+		this.framesLock.lock();
+		try
+		{
+			if(this.frames == null)
+			{
+				return false;
+			}
+			if(Arrays.equals(this.lastFrames.get(folder), png))
+			{
+				this.skippedFrameCount++;
+				return false;
+			}
+			this.lastFrames.put(folder, png);
+			
+			this.frameCount++;
+			final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - this.recordingStartNanos);
+			this.frames.putNextEntry(new ZipEntry(
+				String.format("%s/%06d-%dms.png", folder, this.frameCount, elapsedMillis)));
+			this.frames.write(png);
+			this.frames.closeEntry();
+			return true;
+		}
+		catch(final IOException ioe)
+		{
+			throw new UncheckedIOException(ioe);
+		}
+		finally
+		{
+			this.framesLock.unlock();
+		}
+	}
+	
+	protected void openFrames()
+	{
+		try
+		{
+			this.framesFile = Files.createTempFile("screenshots", "." + FILE_EXTENSION);
+			this.frames = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(this.framesFile)));
+			// PNGs are already compressed
+			this.frames.setLevel(Deflater.NO_COMPRESSION);
+		}
+		catch(final IOException ioe)
+		{
+			throw new UncheckedIOException(ioe);
+		}
+		this.frameCount = 0;
+		this.skippedFrameCount = 0;
+		this.lastFrames.clear();
+		this.recordingStartNanos = System.nanoTime();
+	}
+	
+	protected void closeFrames() throws IOException
+	{
+		if(this.frames != null)
+		{
+			this.frames.close();
+			this.frames = null;
+		}
+	}
+	
+	protected void deleteFrames()
+	{
+		try
+		{
+			this.closeFrames();
+			if(this.framesFile != null)
+			{
+				Files.deleteIfExists(this.framesFile);
+				this.framesFile = null;
+			}
+		}
+		catch(final IOException ex)
+		{
+			LOG.warn("Failed to delete screenshots {}", this.framesFile, ex);
+		}
+	}
+	// endregion
+	
+	@Override
+	public Path saveRecordingToFile(final Path directory, final String fileNameWithoutExtension)
+	{
+		this.framesLock.lock();
+		try
+		{
+			if(this.frames == null)
+			{
+				return null;
+			}
+			
+			this.closeFrames();
+			final Path outFilePath = directory.resolve(fileNameWithoutExtension + "." + FILE_EXTENSION);
+			Files.move(this.framesFile, outFilePath, StandardCopyOption.REPLACE_EXISTING);
+			this.framesFile = null;
+			LOG.debug(
+				"Saved {} screenshots ({} identical skipped) to {}",
+				this.frameCount,
+				this.skippedFrameCount,
+				outFilePath);
+			
+			// Continue with the next recording
+			this.openFrames();
+			return outFilePath;
+		}
+		catch(final IOException ioe)
+		{
+			throw new UncheckedIOException(ioe);
+		}
+		finally
+		{
+			this.framesLock.unlock();
+		}
+	}
+	
+	@Override
+	public boolean runsInContainer()
+	{
+		return false;
+	}
+	
+	@Override
+	public boolean supportsMultipleRecordings()
+	{
+		return true;
+	}
+	
+	@Override
+	public void discardRecording()
+	{
+		this.framesLock.lock();
+		try
+		{
+			if(this.frames != null)
+			{
+				this.deleteFrames();
+				this.openFrames();
+			}
+		}
+		finally
+		{
+			this.framesLock.unlock();
+		}
+	}
+}
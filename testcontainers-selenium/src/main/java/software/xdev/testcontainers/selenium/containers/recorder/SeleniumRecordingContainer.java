@@ -15,22 +15,42 @@
  */
 package software.xdev.testcontainers.selenium.containers.recorder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
 import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 
-import org.testcontainers.containers.wait.strategy.LogMessageWaitStrategy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.output.OutputFrame;
+import org.testcontainers.containers.wait.strategy.Wait;
 import org.testcontainers.utility.DockerImageName;
 
+import com.github.dockerjava.api.async.ResultCallback;
+import com.github.dockerjava.api.command.InspectContainerResponse;
+import com.github.dockerjava.api.model.CpuStatsConfig;
+import com.github.dockerjava.api.model.Statistics;
+
 import software.xdev.testcontainers.selenium.containers.browser.BrowserWebDriverContainer;
+import software.xdev.testcontainers.selenium.metrics.LifecyclePhase;
 
 
-@SuppressWarnings("java:S2160")
+@SuppressWarnings({"java:S2160", "PMD.GodClass"})
 public class SeleniumRecordingContainer extends RecordingContainer<SeleniumRecordingContainer>
 {
+	private static final Logger LOG = LoggerFactory.getLogger(SeleniumRecordingContainer.class);
+	
 	public static final DockerImageName DEFAULT_IMAGE = DockerImageName.parse("selenium/video");
 	
 	// https://github.com/SeleniumHQ/docker-selenium/blob/033f77c02dde9d61d1a4d44be7526ef689244606/Video/Dockerfile#L103-L110
@@ -41,8 +61,29 @@ public class SeleniumRecordingContainer extends RecordingContainer<SeleniumRecor
 	public static final String ENV_SE_FRAME_RATE = "SE_FRAME_RATE";
 	public static final String ENV_SE_CODEC = "SE_CODEC";
 	public static final String ENV_SE_PRESET = "SE_PRESET";
+	// Not supported by the Selenium video script; Only applied to segmented recordings
+	public static final String ENV_SE_VIDEO_SCALE = "SE_VIDEO_SCALE";
 	
 	public static final String LOG_MSG_WAIT_STRATEGY_REGEX = ".*(success: video-ready entered RUNNING state).*\n";
+	public static final String READY_LOG_MESSAGE = "success: video-ready entered RUNNING state";
+	
+	public static final String VIDEO_DIRECTORY = "/videos/";
+	// The Selenium browser containers run their X server on display :99 (= TCP port 6099)
+	public static final int DISPLAY_NUMBER = 99;
+	public static final int DISPLAY_PORT = 6000 + DISPLAY_NUMBER;
+	
+	// Keeps the container alive without recording; Segments are recorded by dedicated ffmpeg processes
+	protected static final String SEGMENTED_KEEP_ALIVE_COMMAND = "trap 'exit 0' TERM INT; while true; do sleep 1; done";
+	// Mirrors how the Selenium video recorder invokes ffmpeg
+	// https://github.com/SeleniumHQ/docker-selenium/blob/033f77c02dde9d61d1a4d44be7526ef689244606/Video/video.sh
+	protected static final String SEGMENT_FFMPEG_COMMAND = "ffmpeg -hide_banner -loglevel warning -flags low_delay"
+		+ " -threads 2 -fflags nobuffer+genpts -strict experimental -y -f x11grab"
+		+ " -video_size \"${" + ENV_SE_SCREEN_WIDTH + "}x${" + ENV_SE_SCREEN_HEIGHT + "}\""
+		+ " -r \"${" + ENV_SE_FRAME_RATE + ":-15}\""
+		+ " -i \"${" + ENV_DISPLAY_CONTAINER_NAME + "}:" + DISPLAY_NUMBER + ".0\""
+		+ " -codec:v \"${" + ENV_SE_CODEC + ":-libx264}\" ${" + ENV_SE_PRESET + ":--preset ultrafast}"
+		+ " ${" + ENV_SE_VIDEO_SCALE + ":+-vf scale=${" + ENV_SE_VIDEO_SCALE + "}}"
+		+ " -pix_fmt yuv420p";
 	
 	protected BrowserWebDriverContainer<?> target;
 	
@@ -51,6 +92,19 @@ public class SeleniumRecordingContainer extends RecordingContainer<SeleniumRecor
 	protected boolean resolutionConfigured;
 	protected String fileExtension = "mkv";
 	
+	protected RecordingProfile recordingProfile;
+	
+	protected boolean segmentedRecording;
+	protected final ReentrantLock segmentLock = new ReentrantLock();
+	protected int currentSegment = -1;
+	
+	// Completed by the recorder itself once it's ready
+	protected CompletableFuture<Void> readySignal = new CompletableFuture<>();
+	
+	// Set once the recorder is started, so that pulling/starting is not counted as recorded time
+	protected final AtomicLong recordingStartNanos = new AtomicLong();
+	protected final AtomicLong lastRecordingBitrate = new AtomicLong(-1);
+	
 	public SeleniumRecordingContainer(final BrowserWebDriverContainer<?> target)
 	{
 		this(target, DEFAULT_IMAGE);
@@ -63,8 +117,8 @@ public class SeleniumRecordingContainer extends RecordingContainer<SeleniumRecor
 		super(dockerImageName);
 		this.target = target;
 		
-		this.setWaitStrategy(new LogMessageWaitStrategy()
-			.withRegEx(LOG_MSG_WAIT_STRATEGY_REGEX)
+		this.withLogConsumer(this::signalReadyOnLog);
+		this.setWaitStrategy(new ReadySignalWaitStrategy(this::getReadySignal)
 			.withStartupTimeout(Duration.of(60, ChronoUnit.SECONDS)));
 	}
 	
@@ -127,6 +181,49 @@ public class SeleniumRecordingContainer extends RecordingContainer<SeleniumRecor
 		return this;
 	}
 	
+	/**
+	 * Records every test into its own segment instead of one file per container lifetime.
+	 * <p>
+	 * When a recording is saved, the recorder switches to a new segment and the finished segment is copied while the
+	 * next one is already being recorded. The container is not stopped, so it can produce many recordings.
+	 * </p>
+	 * <p>
+	 * Instead of the Selenium video script, segments are recorded by ffmpeg processes that are managed by this
+	 * class. Therefore the wait strategy and the entrypoint of the container are replaced.
+	 * </p>
+	 */
+	public SeleniumRecordingContainer withSegmentedRecording(final boolean segmentedRecording)
+	{
+		if(segmentedRecording && !this.segmentedRecording)
+		{
+			// Registered only once - configure is executed for every start
+			this.withCreateContainerCmdModifier(cmd -> {
+				if(!this.segmentedRecording)
+				{
+					return;
+				}
+				cmd.withEntrypoint("/bin/sh", "-c").withCmd(SEGMENTED_KEEP_ALIVE_COMMAND);
+				// Reaps the exited ffmpeg processes
+				cmd.getHostConfig().withInit(true);
+			});
+		}
+		this.segmentedRecording = segmentedRecording;
+		return this;
+	}
+	
+	/**
+	 * Derives frame rate, codec, preset and - for {@link #withSegmentedRecording(boolean) segmented recordings} -
+	 * the output resolution from the profile and the display size.
+	 * <p>
+	 * Values that are set explicitly (e.g. using {@link #withFrameRate(int)}) take precedence.
+	 * </p>
+	 */
+	public SeleniumRecordingContainer withRecordingProfile(final RecordingProfile recordingProfile)
+	{
+		this.recordingProfile = recordingProfile;
+		return this;
+	}
+	
 	/**
 	 * @apiNote Be careful: May require additional escaping
 	 */
@@ -160,10 +257,113 @@ public class SeleniumRecordingContainer extends RecordingContainer<SeleniumRecor
 				this.target.getEnvMap().getOrDefault(ENV_SE_SCREEN_WIDTH, "1360"),
 				this.target.getEnvMap().getOrDefault(ENV_SE_SCREEN_HEIGHT, "1020"));
 		}
+		// configure is executed for every start
+		this.readySignal = new CompletableFuture<>();
+		
+		if(this.recordingProfile != null)
+		{
+			this.applyRecordingProfile();
+		}
+		if(this.segmentedRecording)
+		{
+			this.configureSegmentedRecording();
+		}
 		
 		super.configure();
 	}
 	
+	protected void applyRecordingProfile()
+	{
+		final int displayWidth;
+		final int displayHeight;
+		try
+		{
+			displayWidth = Integer.parseInt(this.getEnvMap().get(ENV_SE_SCREEN_WIDTH));
+			displayHeight = Integer.parseInt(this.getEnvMap().get(ENV_SE_SCREEN_HEIGHT));
+		}
+		catch(final NumberFormatException nfe)
+		{
+			LOG.warn("Unable to apply recording profile {}: Display size is not numeric", this.recordingProfile);
+			return;
+		}
+		
+		final RecordingSettings settings = this.recordingProfile.settingsFor(displayWidth, displayHeight);
+		LOG.debug("Using {} for display {}x{}", settings, displayWidth, displayHeight);
+		
+		this.addEnvIfAbsent(ENV_SE_FRAME_RATE, String.valueOf(settings.frameRate()));
+		this.addEnvIfAbsent(ENV_SE_CODEC, settings.codec());
+		this.addEnvIfAbsent(ENV_SE_PRESET, settings.preset());
+		if(settings.outputWidth() != displayWidth || settings.outputHeight() != displayHeight)
+		{
+			this.addEnvIfAbsent(ENV_SE_VIDEO_SCALE, settings.outputWidth() + ":" + settings.outputHeight());
+		}
+	}
+	
+	protected void addEnvIfAbsent(final String key, final String value)
+	{
+		if(!this.getEnvMap().containsKey(key))
+		{
+			this.addEnv(key, value);
+		}
+	}
+	
+	protected void configureSegmentedRecording()
+	{
+		// The entrypoint is replaced by the modifier that is registered in withSegmentedRecording
+		this.setWaitStrategy(Wait.forSuccessfulCommand(
+				"bash -c \"exec 3<>/dev/tcp/${" + ENV_DISPLAY_CONTAINER_NAME + "}/" + DISPLAY_PORT + "\"")
+			.withStartupTimeout(Duration.of(60, ChronoUnit.SECONDS)));
+	}
+	
+	protected void signalReadyOnLog(final OutputFrame frame)
+	{
+		if(frame.getType() == OutputFrame.OutputType.END)
+		{
+			this.readySignal.completeExceptionally(
+				new IllegalStateException("Recorder stopped before it was ready"));
+		}
+		else if(frame.getUtf8String().contains(READY_LOG_MESSAGE))
+		{
+			this.readySignal.complete(null);
+		}
+	}
+	
+	/**
+	 * @return a future that is completed as soon as the recorder is ready
+	 */
+	public CompletableFuture<Void> getReadySignal()
+	{
+		return this.readySignal;
+	}
+	
+	@Override
+	protected void containerIsStarted(final InspectContainerResponse containerInfo)
+	{
+		// Segmented recordings don't use the Selenium video script and therefore don't log the message
+		this.readySignal.complete(null);
+		this.recordingStartNanos.set(System.nanoTime());
+		
+		if(this.segmentedRecording)
+		{
+			this.segmentLock.lock();
+			try
+			{
+				this.currentSegment = 0;
+				this.startSegment(this.currentSegment);
+			}
+			finally
+			{
+				this.segmentLock.unlock();
+			}
+		}
+	}
+	
+	@Override
+	public boolean supportsMultipleRecordings()
+	{
+		return this.segmentedRecording;
+	}
+	
 	@Override
 	public Path saveRecordingToFile(final Path directory, final String fileNameWithoutExtension)
 	{
@@ -173,17 +373,229 @@ public class SeleniumRecordingContainer extends RecordingContainer<SeleniumRecor
 			return null;
 		}
 		
+		// The recorder must be running to finish/copy the recording
+		this.resumeRecording();
+		
+		if(this.segmentedRecording)
+		{
+			return this.saveSegmentToFile(directory, fileNameWithoutExtension);
+		}
+		
 		// STOP CONTAINER - NO REMOVE, JUST STOP otherwise we lose the recording file
-		this.stopNoRemove();
+		this.timePhase(LifecyclePhase.RECORDING_STOP, this::stopNoRemove);
+		final long recordedNanos = System.nanoTime() - this.recordingStartNanos.get();
 		
 		// COPY FILE + RENAME
 		final Path outFilePath = this.resolveOutputFile(directory, fileNameWithoutExtension);
 		
-		this.copyRecording(outFilePath);
+		this.timePhase(LifecyclePhase.RECORDING_COPY, () -> this.copyRecording(outFilePath));
+		this.updateRecordingBitrate(outFilePath, recordedNanos);
+		
+		return outFilePath;
+	}
+	
+	// region Segments
+	protected Path saveSegmentToFile(final Path directory, final String fileNameWithoutExtension)
+	{
+		final Path outFilePath = this.resolveOutputFile(directory, fileNameWithoutExtension);
 		
+		final long recordedNanos = System.nanoTime() - this.recordingStartNanos.get();
+		final int finishedSegment = this.timePhase(LifecyclePhase.RECORDING_STOP, this::rotateSegment);
+		try
+		{
+			this.timePhase(
+				LifecyclePhase.RECORDING_COPY,
+				() -> this.copyRecording(this.getSegmentFileName(finishedSegment), outFilePath));
+			this.updateRecordingBitrate(outFilePath, recordedNanos);
+		}
+		finally
+		{
+			this.deleteSegment(finishedSegment);
+		}
 		return outFilePath;
 	}
 	
+	@Override
+	public void discardRecording()
+	{
+		if(!this.segmentedRecording)
+		{
+			super.discardRecording();
+			return;
+		}
+		this.resumeRecording();
+		this.deleteSegment(this.rotateSegment());
+	}
+	
+	/**
+	 * Starts recording a new segment and then stops the current one, so that no frames are lost.
+	 *
+	 * @return the finished segment
+	 */
+	protected int rotateSegment()
+	{
+		this.segmentLock.lock();
+		try
+		{
+			final int finishedSegment = this.currentSegment;
+			this.startSegment(finishedSegment + 1);
+			this.currentSegment = finishedSegment + 1;
+			this.recordingStartNanos.set(System.nanoTime());
+			
+			this.stopSegment(finishedSegment);
+			return finishedSegment;
+		}
+		finally
+		{
+			this.segmentLock.unlock();
+		}
+	}
+	
+	protected void startSegment(final int segment)
+	{
+		final String segmentPath = VIDEO_DIRECTORY + this.getSegmentBaseName(segment);
+		this.execInRecorder("nohup " + SEGMENT_FFMPEG_COMMAND
+			+ " " + segmentPath + "." + this.getVideoFileExtension()
+			+ " > " + segmentPath + ".log 2>&1 < /dev/null &"
+			+ " echo $! > " + segmentPath + ".pid");
+	}
+	
+	protected void stopSegment(final int segment)
+	{
+		final String pidFile = VIDEO_DIRECTORY + this.getSegmentBaseName(segment) + ".pid";
+		// SIGINT lets ffmpeg finish the file; Wait until it exited (max 30s)
+		this.execInRecorder("PID=$(cat " + pidFile + ") && kill -INT $PID;"
+			+ " for i in $(seq 300); do kill -0 $PID 2>/dev/null || exit 0; sleep 0.1; done;"
+			+ " kill -KILL $PID");
+	}
+	
+	protected void deleteSegment(final int segment)
+	{
+		this.execInRecorder("rm -f " + VIDEO_DIRECTORY + this.getSegmentBaseName(segment) + ".*");
+	}
+	
+	protected String getSegmentBaseName(final int segment)
+	{
+		return "segment-" + segment;
+	}
+	
+	protected String getSegmentFileName(final int segment)
+	{
+		return this.getSegmentBaseName(segment) + "." + this.getVideoFileExtension();
+	}
+	
+	protected void execInRecorder(final String command)
+	{
+		try
+		{
+			final ExecResult result = this.execInContainer("/bin/sh", "-c", command);
+			if(result.getExitCode() != 0)
+			{
+				throw new IllegalStateException("Command '" + command + "' failed with exit code "
+					+ result.getExitCode() + ": " + result.getStderr());
+			}
+		}
+		catch(final IOException ioe)
+		{
+			throw new UncheckedIOException(ioe);
+		}
+		catch(final InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Got interrupted", e);
+		}
+	}
+	// endregion
+	
+	// region Encoder stats
+	
+	/**
+	 * Samples the CPU usage of the recorder (= mostly the encoder) using Docker's stats.
+	 *
+	 * @return the usage in percent of a single CPU (e.g. <code>150.0</code> = 1.5 CPUs) or empty if not available
+	 */
+	public OptionalDouble sampleEncoderCpuPercent()
+	{
+		if(this.getContainerId() == null)
+		{
+			return OptionalDouble.empty();
+		}
+		
+		final AtomicReference<Statistics> statistics = new AtomicReference<>();
+		try(final ResultCallback.Adapter<Statistics> callback = this.dockerClient.statsCmd(this.getContainerId())
+			.withNoStream(true)
+			.exec(new ResultCallback.Adapter<>()
+			{
+				@Override
+				public void onNext(final Statistics object)
+				{
+					statistics.set(object);
+				}
+			}))
+		{
+			callback.awaitCompletion(10, TimeUnit.SECONDS);
+		}
+		catch(final IOException ex)
+		{
+			LOG.debug("Failed to sample stats of recorder", ex);
+		}
+		catch(final InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Got interrupted", e);
+		}
+		return Optional.ofNullable(statistics.get())
+			.map(SeleniumRecordingContainer::cpuPercent)
+			.map(OptionalDouble::of)
+			.orElseGet(OptionalDouble::empty);
+	}
+	
+	protected static Double cpuPercent(final Statistics statistics)
+	{
+		final CpuStatsConfig current = statistics.getCpuStats();
+		final CpuStatsConfig previous = statistics.getPreCpuStats();
+		if(current == null || previous == null
+			|| current.getCpuUsage() == null || previous.getCpuUsage() == null
+			|| current.getSystemCpuUsage() == null || previous.getSystemCpuUsage() == null)
+		{
+			return null;
+		}
+		
+		final long systemDelta = current.getSystemCpuUsage() - previous.getSystemCpuUsage();
+		if(systemDelta <= 0)
+		{
+			return null;
+		}
+		final long cpuDelta = current.getCpuUsage().getTotalUsage() - previous.getCpuUsage().getTotalUsage();
+		final long onlineCpus = current.getOnlineCpus() != null ? current.getOnlineCpus() : 1;
+		return 100.0 * cpuDelta / systemDelta * onlineCpus;
+	}
+	
+	/**
+	 * @return the average bitrate (bits/s) of the last saved recording or empty if nothing was saved yet
+	 */
+	public OptionalLong getLastRecordingBitrate()
+	{
+		final long bitrate = this.lastRecordingBitrate.get();
+		return bitrate >= 0 ? OptionalLong.of(bitrate) : OptionalLong.empty();
+	}
+	
+	protected void updateRecordingBitrate(final Path recording, final long recordedNanos)
+	{
+		try
+		{
+			final long bitrate = (long)(Files.size(recording) * 8.0
+				* TimeUnit.SECONDS.toNanos(1) / Math.max(1, recordedNanos));
+			this.lastRecordingBitrate.set(bitrate);
+			LOG.debug("Recording {} has an average bitrate of {} bits/s", recording, bitrate);
+		}
+		catch(final IOException ex)
+		{
+			LOG.debug("Failed to determine bitrate of {}", recording, ex);
+		}
+	}
+	// endregion
+	
 	protected void stopNoRemove()
 	{
 		this.dockerClient.stopContainerCmd(this.getContainerId()).exec();
@@ -191,18 +603,45 @@ public class SeleniumRecordingContainer extends RecordingContainer<SeleniumRecor
 	
 	protected Path resolveOutputFile(final Path directory, final String fileNameWithoutExtension)
 	{
-		return directory.resolve(fileNameWithoutExtension
-			+ "."
-			+ Optional.ofNullable(this.videoFileName)
+		return directory.resolve(fileNameWithoutExtension + "." + this.getVideoFileExtension());
+	}
+	
+	protected String getVideoFileExtension()
+	{
+		return Optional.ofNullable(this.videoFileName)
 			.filter(f -> f.contains("."))
 			.map(f -> f.substring(f.lastIndexOf('.') + 1))
-			.orElse(""));
+			.orElse("");
 	}
 	
 	protected void copyRecording(final Path outFilePath)
 	{
-		this.copyFileFromContainer(
-			"/videos/" + this.videoFileName,
-			is -> Files.copy(is, outFilePath, StandardCopyOption.REPLACE_EXISTING));
+		this.copyRecording(this.videoFileName, outFilePath);
+	}
+	
+	/**
+	 * Streams the Docker archive of the recording directly into the output file.
+	 */
+	protected void copyRecording(final String videoFileNameInContainer, final Path outFilePath)
+	{
+		final long startNanos = System.nanoTime();
+		try(final InputStream archiveStream = this.dockerClient
+			.copyArchiveFromContainerCmd(this.getContainerId(), VIDEO_DIRECTORY + videoFileNameInContainer)
+			.exec())
+		{
+			final long bytes = TarRecordingTransfer.transferFirstFile(archiveStream, outFilePath);
+			
+			final long durationNanos = Math.max(1, System.nanoTime() - startNanos);
+			LOG.debug(
+				"Copied recording {} ({} bytes) in {}ms ({} bytes/s)",
+				outFilePath,
+				bytes,
+				TimeUnit.NANOSECONDS.toMillis(durationNanos),
+				bytes * TimeUnit.SECONDS.toNanos(1) / durationNanos);
+		}
+		catch(final IOException ioe)
+		{
+			throw new UncheckedIOException(ioe);
+		}
 	}
 }
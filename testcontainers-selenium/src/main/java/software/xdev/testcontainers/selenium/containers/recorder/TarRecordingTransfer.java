@@ -0,0 +1,94 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.containers.recorder;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+
+
+/**
+ * Transfers a file out of a tar archive stream (as returned by Docker when copying files from a container) directly
+ * into a {@link FileChannel}.
+ * <p>
+ * In comparison to {@link java.nio.file.Files#copy(InputStream, Path, java.nio.file.CopyOption...)} a much larger
+ * buffer is used, which is reused for the whole transfer. This greatly reduces the amount of read/write calls and
+ * allocations for large recordings.
+ * </p>
+ */
+public final class TarRecordingTransfer
+{
+	public static final int DEFAULT_BUFFER_SIZE = 1024 * 1024;
+	
+	private TarRecordingTransfer()
+	{
+	}
+	
+	/**
+	 * Writes the first file of the tar archive into the target file.
+	 *
+	 * @return the amount of bytes that were written
+	 */
+	public static long transferFirstFile(final InputStream tarStream, final Path target) throws IOException
+	{
+		return transferFirstFile(tarStream, target, DEFAULT_BUFFER_SIZE);
+	}
+	
+	public static long transferFirstFile(
+		final InputStream tarStream,
+		final Path target,
+		final int bufferSize) throws IOException
+	{
+		try(final TarArchiveInputStream tarIn = new TarArchiveInputStream(tarStream);
+			final FileChannel out = FileChannel.open(
+				target,
+				StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING))
+		{
+			TarArchiveEntry entry = tarIn.getNextEntry();
+			while(entry != null && !entry.isFile())
+			{
+				entry = tarIn.getNextEntry();
+			}
+			if(entry == null)
+			{
+				throw new FileNotFoundException("Archive contains no file");
+			}
+			
+			final byte[] buffer = new byte[bufferSize];
+			final ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
+			long transferred = 0;
+			int read;
+			while((read = tarIn.readNBytes(buffer, 0, bufferSize)) > 0)
+			{
+				byteBuffer.clear().limit(read);
+				while(byteBuffer.hasRemaining())
+				{
+					transferred += out.write(byteBuffer);
+				}
+			}
+			return transferred;
+		}
+	}
+}
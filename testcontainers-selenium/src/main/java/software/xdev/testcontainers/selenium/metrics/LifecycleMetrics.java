@@ -0,0 +1,152 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.metrics;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.images.RemoteDockerImage;
+import org.testcontainers.utility.DockerImageName;
+
+
+/**
+ * Helpers for measuring {@link LifecyclePhase}s and reporting them to a {@link LifecycleMetricsListener}.
+ */
+public final class LifecycleMetrics
+{
+	private static final Logger LOG = LoggerFactory.getLogger(LifecycleMetrics.class);
+	
+	public static final String UNKNOWN = "unknown";
+	
+	private LifecycleMetrics()
+	{
+	}
+	
+	public static void time(
+		final LifecycleMetricsListener listener,
+		final LifecyclePhase phase,
+		final Supplier<Map<String, String>> tagsSupplier,
+		final Runnable action)
+	{
+		time(listener, phase, tagsSupplier, () -> {
+			action.run();
+			return null;
+		});
+	}
+	
+	/**
+	 * Runs the action and reports its duration - also when it fails.
+	 * <p>
+	 * The tags are only computed after the action, so that they reflect changes done by it (e.g. a resolved image).
+	 * A failing listener never affects the action.
+	 * </p>
+	 */
+	public static <T> T time(
+		final LifecycleMetricsListener listener,
+		final LifecyclePhase phase,
+		final Supplier<Map<String, String>> tagsSupplier,
+		final Supplier<T> action)
+	{
+		if(listener == LifecycleMetricsListener.NOOP)
+		{
+			return action.get();
+		}
+		
+		final long startNanos = System.nanoTime();
+		boolean succeeded = false;
+		try
+		{
+			final T result = action.get();
+			succeeded = true;
+			return result;
+		}
+		finally
+		{
+			report(listener, phase, Duration.ofNanos(System.nanoTime() - startNanos), succeeded, tagsSupplier);
+		}
+	}
+	
+	public static void report(
+		final LifecycleMetricsListener listener,
+		final LifecyclePhase phase,
+		final Duration duration,
+		final boolean succeeded,
+		final Supplier<Map<String, String>> tagsSupplier)
+	{
+		try
+		{
+			listener.onPhaseCompleted(phase, duration, succeeded, tagsSupplier.get());
+		}
+		catch(final Exception ex)
+		{
+			LOG.warn("Failed to report {} to metrics listener", phase, ex);
+		}
+	}
+	
+	public static Map<String, String> tags(final String image, final String browser)
+	{
+		return Map.of(
+			LifecycleMetricsListener.TAG_IMAGE, image,
+			LifecycleMetricsListener.TAG_BROWSER, browser);
+	}
+	
+	/**
+	 * Determines the image of a container without pulling it (which {@link GenericContainer#getDockerImageName()}
+	 * would do).
+	 */
+	@SuppressWarnings("java:S3011")
+	public static String imageOf(final GenericContainer<?> container)
+	{
+		try
+		{
+			final Method mGetImageName = RemoteDockerImage.class.getDeclaredMethod("getImageName");
+			mGetImageName.setAccessible(true);
+			return ((DockerImageName)mGetImageName.invoke(container.getImage())).asCanonicalNameString();
+		}
+		catch(final Exception ex)
+		{
+			LOG.debug("Failed to determine image of container", ex);
+			return UNKNOWN;
+		}
+	}
+	
+	/**
+	 * Derives the browser from a Selenium image, e.g. <code>selenium/standalone-firefox:latest</code> &rarr;
+	 * <code>firefox</code>.
+	 */
+	public static String browserOf(final String image)
+	{
+		if(image == null || UNKNOWN.equals(image))
+		{
+			return UNKNOWN;
+		}
+		final String repository = DockerImageName.parse(image).getRepository();
+		final String name = repository.substring(repository.lastIndexOf('/') + 1);
+		for(final String prefix : new String[]{"standalone-", "node-"})
+		{
+			if(name.startsWith(prefix))
+			{
+				return name.substring(prefix.length());
+			}
+		}
+		return name;
+	}
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.metrics;
+
+import java.time.Duration;
+import java.util.Map;
+
+
+/**
+ * Receives the duration of each {@link LifecyclePhase} of a container.
+ * <p>
+ * Implementations must be thread safe, as phases (e.g. the recorder start) may complete on background threads.<br/>
+ * A Micrometer based implementation is available with {@link MicrometerLifecycleMetricsListener}.
+ * </p>
+ */
+@FunctionalInterface
+public interface LifecycleMetricsListener
+{
+	String TAG_IMAGE = "image";
+	String TAG_BROWSER = "browser";
+	
+	LifecycleMetricsListener NOOP = (phase, duration, succeeded, tags) -> {
+	};
+	
+	/**
+	 * @param phase     The phase that was completed
+	 * @param duration  How long the phase took
+	 * @param succeeded <code>false</code> if the phase failed with an exception
+	 * @param tags      Describes the container, e.g. {@link #TAG_IMAGE} and {@link #TAG_BROWSER}
+	 */
+	void onPhaseCompleted(LifecyclePhase phase, Duration duration, boolean succeeded, Map<String, String> tags);
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.metrics;
+
+/**
+ * Phases of the lifecycle of a browser or recording container that are measured.
+ */
+public enum LifecyclePhase
+{
+	/**
+	 * Checking/Resolving a working image (see {@code BrowserWebDriverContainer#withValidateImage(boolean)})
+	 */
+	IMAGE_VALIDATION,
+	/**
+	 * Pulling the image, creating and starting the container until it's running
+	 */
+	CONTAINER_CREATE,
+	/**
+	 * Waiting until the running container is ready (wait strategy)
+	 */
+	WAIT_FOR_READY,
+	/**
+	 * Complete start of the recording container
+	 */
+	RECORDER_START,
+	/**
+	 * Finishing a recording so that it can be copied
+	 */
+	RECORDING_STOP,
+	/**
+	 * Copying a finished recording out of the container
+	 */
+	RECORDING_COPY,
+	/**
+	 * Stopping and removing the container
+	 */
+	CONTAINER_STOP,
+	/**
+	 * Creating a dedicated network
+	 */
+	NETWORK_CREATE,
+	/**
+	 * Removing a dedicated network
+	 */
+	NETWORK_REMOVE
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.metrics;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+
+/**
+ * Records lifecycle phases into a Micrometer {@link MeterRegistry}.
+ * <p>
+ * Requires <code>io.micrometer:micrometer-core</code> on the classpath.
+ * </p>
+ * <ul>
+ *     <li>Timer <code>{prefix}.phase</code> - duration of each phase</li>
+ *     <li>Counter <code>{prefix}.phase.failures</code> - amount of failed phases</li>
+ * </ul>
+ * All meters are tagged with the container tags, the <code>phase</code> and the <code>outcome</code>.
+ */
+public class MicrometerLifecycleMetricsListener implements LifecycleMetricsListener
+{
+	public static final String DEFAULT_PREFIX = "testcontainers.selenium";
+	
+	public static final String TAG_PHASE = "phase";
+	public static final String TAG_OUTCOME = "outcome";
+	
+	protected final MeterRegistry registry;
+	protected final String prefix;
+	
+	public MicrometerLifecycleMetricsListener(final MeterRegistry registry)
+	{
+		this(registry, DEFAULT_PREFIX);
+	}
+	
+	public MicrometerLifecycleMetricsListener(final MeterRegistry registry, final String prefix)
+	{
+		this.registry = registry;
+		this.prefix = prefix;
+	}
+	
+	@Override
+	public void onPhaseCompleted(
+		final LifecyclePhase phase,
+		final Duration duration,
+		final boolean succeeded,
+		final Map<String, String> tags)
+	{
+		Tags meterTags = Tags.of(
+			TAG_PHASE, phase.name().toLowerCase(Locale.ROOT),
+			TAG_OUTCOME, succeeded ? "success" : "failure");
+		for(final Map.Entry<String, String> tag : tags.entrySet())
+		{
+			meterTags = meterTags.and(tag.getKey(), tag.getValue());
+		}
+		
+		Timer.builder(this.prefix + ".phase")
+			.description("Duration of a lifecycle phase of a container")
+			.tags(meterTags)
+			.register(this.registry)
+			.record(duration);
+		
+		if(!succeeded)
+		{
+			Counter.builder(this.prefix + ".phase.failures")
+				.description("Failed lifecycle phases of a container")
+				.tags(meterTags)
+				.register(this.registry)
+				.increment();
+		}
+	}
+}
@@ -0,0 +1,373 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.network;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.Network;
+
+import software.xdev.testcontainers.selenium.containers.browser.StartupTimeStatistics;
+import software.xdev.testcontainers.selenium.metrics.LifecycleMetrics;
+import software.xdev.testcontainers.selenium.metrics.LifecycleMetricsListener;
+import software.xdev.testcontainers.selenium.metrics.LifecyclePhase;
+
+
+/**
+ * Hands out dedicated networks instead of attaching all containers to {@link Network#SHARED}.
+ * <p>
+ * With many containers on a single bridge network, network setup and DNS resolution get slower with every
+ * container. Depending on the {@link Mode} a network is used by a single browser+recorder pair or by all containers
+ * of a worker (thread).
+ * </p>
+ * <p>
+ * Released networks are kept for the next lease (up to {@link #withMaxIdle(int)}), so that the costs for creating
+ * a network are only paid once; All other networks are removed.
+ * </p>
+ */
+public class PooledNetworkManager implements AutoCloseable
+{
+	private static final Logger LOG = LoggerFactory.getLogger(PooledNetworkManager.class);
+	
+	public static final int DEFAULT_MAX_IDLE = 4;
+	
+	protected final Mode mode;
+	protected int maxIdle = DEFAULT_MAX_IDLE;
+	protected Supplier<Object> workerKeySupplier = Thread::currentThread;
+	protected Supplier<Network> networkFactory = Network::newNetwork;
+	protected LifecycleMetricsListener metricsListener = LifecycleMetricsListener.NOOP;
+	
+	protected final ReentrantLock lock = new ReentrantLock();
+	protected final Deque<Network> idle = new ArrayDeque<>();
+	protected final Map<Object, WorkerNetwork> workerNetworks = new HashMap<>();
+	protected final AtomicBoolean closed = new AtomicBoolean();
+	
+	protected final AtomicReference<StartupTimeStatistics.Summary> createSummary = new AtomicReference<>();
+	protected final AtomicReference<StartupTimeStatistics.Summary> removeSummary = new AtomicReference<>();
+	
+	public PooledNetworkManager(final Mode mode)
+	{
+		this.mode = Objects.requireNonNull(mode);
+	}
+	
+	// region Config
+	
+	/**
+	 * @param maxIdle Amount of released networks that are kept for later leases
+	 */
+	public PooledNetworkManager withMaxIdle(final int maxIdle)
+	{
+		if(maxIdle < 0)
+		{
+			throw new IllegalArgumentException("maxIdle must not be negative");
+		}
+		this.maxIdle = maxIdle;
+		return this;
+	}
+	
+	/**
+	 * @param workerKeySupplier Identifies the current worker in {@link Mode#PER_WORKER}; Default: current thread.<br/>
+	 *                          Containers that are started asynchronously capture the key on the thread that
+	 *                          requested the start. Containers that are started by other threads (e.g. by a
+	 *                          {@code BrowserContainerPool}) require a supplier that doesn't depend on the thread.
+	 */
+	public PooledNetworkManager withWorkerKeySupplier(final Supplier<Object> workerKeySupplier)
+	{
+		this.workerKeySupplier = Objects.requireNonNull(workerKeySupplier);
+		return this;
+	}
+	
+	public PooledNetworkManager withNetworkFactory(final Supplier<Network> networkFactory)
+	{
+		this.networkFactory = Objects.requireNonNull(networkFactory);
+		return this;
+	}
+	
+	/**
+	 * @param metricsListener Receives the duration of {@link LifecyclePhase#NETWORK_CREATE} and
+	 *                        {@link LifecyclePhase#NETWORK_REMOVE}
+	 */
+	public PooledNetworkManager withMetricsListener(final LifecycleMetricsListener metricsListener)
+	{
+		this.metricsListener = Objects.requireNonNull(metricsListener);
+		return this;
+	}
+	// endregion
+	
+	/**
+	 * @return the key of the current worker in {@link Mode#PER_WORKER}
+	 */
+	public Object currentWorkerKey()
+	{
+		return this.workerKeySupplier.get();
+	}
+	
+	public Lease acquire()
+	{
+		return this.acquire(this.mode == Mode.PER_WORKER ? this.currentWorkerKey() : null);
+	}
+	
+	/**
+	 * @param workerKey The worker the network is acquired for - only used in {@link Mode#PER_WORKER}
+	 */
+	public Lease acquire(final Object workerKey)
+	{
+		if(this.closed.get())
+		{
+			throw new IllegalStateException("Network manager is closed");
+		}
+		
+		if(this.mode == Mode.PER_PAIR)
+		{
+			return new Lease(this, this.takeIdleOrCreate(), null);
+		}
+		
+		Objects.requireNonNull(workerKey);
+		this.lock.lock();
+		try
+		{
+			final WorkerNetwork workerNetwork = this.workerNetworks.get(workerKey);
+			if(workerNetwork != null)
+			{
+				workerNetwork.leases++;
+				return new Lease(this, workerNetwork.network, workerKey);
+			}
+		}
+		finally
+		{
+			this.lock.unlock();
+		}
+		
+		final Network network = this.takeIdleOrCreate();
+		this.lock.lock();
+		try
+		{
+			final WorkerNetwork existing = this.workerNetworks.putIfAbsent(workerKey, new WorkerNetwork(network));
+			if(existing != null)
+			{
+				// Created concurrently for the same worker
+				existing.leases++;
+				this.idle.addFirst(network);
+				return new Lease(this, existing.network, workerKey);
+			}
+			return new Lease(this, network, workerKey);
+		}
+		finally
+		{
+			this.lock.unlock();
+		}
+	}
+	
+	protected Network takeIdleOrCreate()
+	{
+		this.lock.lock();
+		try
+		{
+			final Network idleNetwork = this.idle.pollFirst();
+			if(idleNetwork != null)
+			{
+				return idleNetwork;
+			}
+		}
+		finally
+		{
+			this.lock.unlock();
+		}
+		
+		return this.timed(LifecyclePhase.NETWORK_CREATE, this.createSummary, () -> {
+			final Network network = this.networkFactory.get();
+			// Networks are created lazily; Create it now so that the duration is known
+			network.getId();
+			return network;
+		});
+	}
+	
+	protected void release(final Lease lease)
+	{
+		Network toRelease = lease.network;
+		if(lease.workerKey != null)
+		{
+			this.lock.lock();
+			try
+			{
+				final WorkerNetwork workerNetwork = this.workerNetworks.get(lease.workerKey);
+				if(workerNetwork != null && --workerNetwork.leases > 0)
+				{
+					return;
+				}
+				this.workerNetworks.remove(lease.workerKey);
+			}
+			finally
+			{
+				this.lock.unlock();
+			}
+		}
+		
+		this.lock.lock();
+		try
+		{
+			if(!this.closed.get() && this.idle.size() < this.maxIdle)
+			{
+				this.idle.addFirst(toRelease);
+				toRelease = null;
+			}
+		}
+		finally
+		{
+			this.lock.unlock();
+		}
+		
+		Optional.ofNullable(toRelease).ifPresent(this::remove);
+	}
+	
+	protected void remove(final Network network)
+	{
+		try
+		{
+			this.timed(LifecyclePhase.NETWORK_REMOVE, this.removeSummary, () -> {
+				network.close();
+				return null;
+			});
+		}
+		catch(final Exception ex)
+		{
+			LOG.warn("Failed to remove network {}", network.getId(), ex);
+		}
+	}
+	
+	protected <T> T timed(
+		final LifecyclePhase phase,
+		final AtomicReference<StartupTimeStatistics.Summary> summary,
+		final Supplier<T> action)
+	{
+		final long startNanos = System.nanoTime();
+		final T result = LifecycleMetrics.time(this.metricsListener, phase, Map::of, action);
+		final StartupTimeStatistics.Summary current =
+			StartupTimeStatistics.Summary.of(Duration.ofNanos(System.nanoTime() - startNanos));
+		summary.accumulateAndGet(current, (prev, next) -> prev != null ? prev.combine(next) : next);
+		return result;
+	}
+	
+	/**
+	 * @return how long creating networks took; <code>null</code> if no network was created yet
+	 */
+	public StartupTimeStatistics.Summary getCreateStatistics()
+	{
+		return this.createSummary.get();
+	}
+	
+	/**
+	 * @return how long removing networks took; <code>null</code> if no network was removed yet
+	 */
+	public StartupTimeStatistics.Summary getRemoveStatistics()
+	{
+		return this.removeSummary.get();
+	}
+	
+	/**
+	 * Removes all idle networks.
+	 * <p>
+	 * Networks that are still leased are removed once they are released.
+	 * </p>
+	 */
+	@Override
+	public void close()
+	{
+		final List<Network> toRemove;
+		this.lock.lock();
+		try
+		{
+			this.closed.set(true);
+			toRemove = new ArrayList<>(this.idle);
+			this.idle.clear();
+		}
+		finally
+		{
+			this.lock.unlock();
+		}
+		toRemove.forEach(this::remove);
+	}
+	
+	public enum Mode
+	{
+		/**
+		 * Every browser+recorder pair gets its own network
+		 */
+		PER_PAIR,
+		/**
+		 * All containers of a worker (by default: thread) share a network
+		 */
+		PER_WORKER
+	}
+	
+	
+	protected static class WorkerNetwork
+	{
+		protected final Network network;
+		protected int leases = 1;
+		
+		protected WorkerNetwork(final Network network)
+		{
+			this.network = network;
+		}
+	}
+	
+	
+	/**
+	 * A network that is leased from the manager. Closing the lease returns the network.
+	 */
+	public static class Lease implements AutoCloseable
+	{
+		protected final PooledNetworkManager manager;
+		protected final Network network;
+		protected final Object workerKey;
+		protected final AtomicBoolean released = new AtomicBoolean();
+		
+		protected Lease(final PooledNetworkManager manager, final Network network, final Object workerKey)
+		{
+			this.manager = manager;
+			this.network = network;
+			this.workerKey = workerKey;
+		}
+		
+		public Network getNetwork()
+		{
+			return this.network;
+		}
+		
+		@Override
+		public void close()
+		{
+			if(this.released.compareAndSet(false, true))
+			{
+				this.manager.release(this);
+			}
+		}
+	}
+}
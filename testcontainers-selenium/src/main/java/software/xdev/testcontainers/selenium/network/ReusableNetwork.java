@@ -0,0 +1,136 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.network;
+
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.Network;
+
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.exception.ConflictException;
+
+
+/**
+ * A network with a fixed name that outlives the JVM.
+ * <p>
+ * Required for reusable containers: A reused container must be attached to the same network in every run, otherwise
+ * its configuration (and therefore its reuse hash) changes. The network is created on first use if it doesn't exist
+ * yet and is not registered for cleanup.
+ * </p>
+ */
+public class ReusableNetwork implements Network
+{
+	private static final Logger LOG = LoggerFactory.getLogger(ReusableNetwork.class);
+	
+	public static final String DEFAULT_NAME = "testcontainers-selenium-reuse";
+	public static final String LABEL = "software.xdev.testcontainers.selenium.reusable-network";
+	
+	protected static final ReusableNetwork DEFAULT = new ReusableNetwork(DEFAULT_NAME);
+	
+	protected final String name;
+	protected final ReentrantLock initLock = new ReentrantLock();
+	protected String id;
+	
+	public ReusableNetwork(final String name)
+	{
+		this.name = name;
+	}
+	
+	public static ReusableNetwork getDefault()
+	{
+		return DEFAULT;
+	}
+	
+	public String getName()
+	{
+		return this.name;
+	}
+	
+	@Override
+	public String getId()
+	{
+		this.initLock.lock();
+		try
+		{
+			if(this.id == null)
+			{
+				this.id = this.findOrCreate(DockerClientFactory.lazyClient());
+			}
+			return this.id;
+		}
+		finally
+		{
+			this.initLock.unlock();
+		}
+	}
+	
+	protected String findOrCreate(final DockerClient client)
+	{
+		final String existingId = this.find(client);
+		if(existingId != null)
+		{
+			return existingId;
+		}
+		
+		try
+		{
+			final String createdId = client.createNetworkCmd()
+				.withName(this.name)
+				.withCheckDuplicate(true)
+				.withLabels(Map.of(LABEL, "true"))
+				.exec()
+				.getId();
+			LOG.info("Created reusable network {}", this.name);
+			return createdId;
+		}
+		catch(final ConflictException ex)
+		{
+			// Created concurrently by another process
+			final String concurrentlyCreatedId = this.find(client);
+			if(concurrentlyCreatedId == null)
+			{
+				throw ex;
+			}
+			return concurrentlyCreatedId;
+		}
+	}
+	
+	protected String find(final DockerClient client)
+	{
+		return client.listNetworksCmd()
+			.withNameFilter(this.name)
+			.exec()
+			.stream()
+			// The name filter also matches partially
+			.filter(network -> this.name.equals(network.getName()))
+			.map(com.github.dockerjava.api.model.Network::getId)
+			.findFirst()
+			.orElse(null);
+	}
+	
+	/**
+	 * Does nothing: The network is intended to be shared by reused containers across JVMs.
+	 */
+	@Override
+	public void close()
+	{
+		// Intentionally kept
+	}
+}
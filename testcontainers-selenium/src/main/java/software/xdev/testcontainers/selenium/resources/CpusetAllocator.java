@@ -0,0 +1,210 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.resources;
+
+import java.util.BitSet;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.DockerClientFactory;
+
+
+/**
+ * Hands out disjoint sets of CPUs of the Docker host, so that containers that run in parallel don't compete for the
+ * same CPUs.
+ * <p>
+ * A browser container and its recorder share an allocation.<br/>
+ * Contiguous CPUs are preferred as they usually share caches. When not enough CPUs are free, no allocation is made
+ * and the container runs without pinning.
+ * </p>
+ * <p>
+ * Note that the allocator only knows about the containers of the current JVM.
+ * </p>
+ */
+public class CpusetAllocator
+{
+	private static final Logger LOG = LoggerFactory.getLogger(CpusetAllocator.class);
+	
+	protected final int cpuCount;
+	protected final BitSet allocated;
+	protected final ReentrantLock lock = new ReentrantLock();
+	
+	/**
+	 * @param cpuCount Amount of CPUs of the Docker host that can be allocated (<code>0</code> until
+	 *                 <code>cpuCount - 1</code>)
+	 */
+	public CpusetAllocator(final int cpuCount)
+	{
+		if(cpuCount < 1)
+		{
+			throw new IllegalArgumentException("cpuCount must be at least 1");
+		}
+		this.cpuCount = cpuCount;
+		this.allocated = new BitSet(cpuCount);
+	}
+	
+	/**
+	 * @return an allocator for all CPUs of the Docker host
+	 */
+	public static CpusetAllocator forDockerHost()
+	{
+		return new CpusetAllocator(DockerClientFactory.instance().getInfo().getNCPU());
+	}
+	
+	public static CpusetAllocator getDefault()
+	{
+		return DefaultHolder.INSTANCE;
+	}
+	
+	/**
+	 * @param cpus Amount of CPUs that should be allocated
+	 * @return the allocation or empty if not enough CPUs are free
+	 */
+	public Optional<Allocation> allocate(final int cpus)
+	{
+		if(cpus < 1)
+		{
+			throw new IllegalArgumentException("cpus must be at least 1");
+		}
+		
+		this.lock.lock();
+		try
+		{
+			final BitSet candidates = this.findContiguous(cpus).orElseGet(() -> this.findAny(cpus));
+			if(candidates.cardinality() < cpus)
+			{
+				LOG.debug("Unable to allocate {} CPUs; Only {} are free", cpus, this.getFreeCpuCount());
+				return Optional.empty();
+			}
+			this.allocated.or(candidates);
+			return Optional.of(new Allocation(this, candidates));
+		}
+		finally
+		{
+			this.lock.unlock();
+		}
+	}
+	
+	protected Optional<BitSet> findContiguous(final int cpus)
+	{
+		int start = this.allocated.nextClearBit(0);
+		while(start + cpus <= this.cpuCount)
+		{
+			final int nextAllocated = this.allocated.nextSetBit(start);
+			if(nextAllocated == -1 || nextAllocated >= start + cpus)
+			{
+				final BitSet result = new BitSet(this.cpuCount);
+				result.set(start, start + cpus);
+				return Optional.of(result);
+			}
+			start = this.allocated.nextClearBit(nextAllocated);
+		}
+		return Optional.empty();
+	}
+	
+	protected BitSet findAny(final int cpus)
+	{
+		final BitSet result = new BitSet(this.cpuCount);
+		for(int cpu = this.allocated.nextClearBit(0);
+			cpu < this.cpuCount && result.cardinality() < cpus;
+			cpu = this.allocated.nextClearBit(cpu + 1))
+		{
+			result.set(cpu);
+		}
+		return result;
+	}
+	
+	protected void release(final BitSet cpus)
+	{
+		this.lock.lock();
+		try
+		{
+			this.allocated.andNot(cpus);
+		}
+		finally
+		{
+			this.lock.unlock();
+		}
+	}
+	
+	public int getFreeCpuCount()
+	{
+		this.lock.lock();
+		try
+		{
+			return this.cpuCount - this.allocated.cardinality();
+		}
+		finally
+		{
+			this.lock.unlock();
+		}
+	}
+	
+	/**
+	 * CPUs that are allocated until {@link #close() closed}.
+	 */
+	public static class Allocation implements AutoCloseable
+	{
+		protected final CpusetAllocator allocator;
+		protected final BitSet cpus;
+		protected final AtomicBoolean released = new AtomicBoolean();
+		
+		protected Allocation(final CpusetAllocator allocator, final BitSet cpus)
+		{
+			this.allocator = allocator;
+			this.cpus = cpus;
+		}
+		
+		/**
+		 * @return the allocated CPUs in the format of Docker's <code>--cpuset-cpus</code>, e.g. <code>2,3</code>
+		 */
+		public String getCpuset()
+		{
+			return this.cpus.stream()
+				.mapToObj(String::valueOf)
+				.collect(Collectors.joining(","));
+		}
+		
+		public IntStream cpus()
+		{
+			return this.cpus.stream();
+		}
+		
+		@Override
+		public void close()
+		{
+			if(this.released.compareAndSet(false, true))
+			{
+				this.allocator.release(this.cpus);
+			}
+		}
+	}
+	
+	
+	private static final class DefaultHolder
+	{
+		static final CpusetAllocator INSTANCE = forDockerHost();
+		
+		private DefaultHolder()
+		{
+		}
+	}
+}
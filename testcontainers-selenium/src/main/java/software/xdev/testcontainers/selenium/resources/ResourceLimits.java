@@ -0,0 +1,224 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.resources;
+
+import java.util.Objects;
+
+import com.github.dockerjava.api.model.HostConfig;
+
+
+/**
+ * CPU and memory limits of a container.
+ * <p>
+ * Instances are immutable, so that the same limits can safely be shared across containers.<br/>
+ * Only the values that were set are applied; everything else keeps the Docker defaults.
+ * </p>
+ */
+public final class ResourceLimits
+{
+	private static final ResourceLimits NONE = new ResourceLimits(null, null, null, null, null, null, null);
+	
+	private static final long NANO_CPUS_PER_CPU = 1_000_000_000L;
+	
+	private final Long nanoCpus;
+	private final Long cpuQuota;
+	private final Long cpuPeriod;
+	private final Integer cpuShares;
+	private final String cpusetCpus;
+	private final Long memory;
+	private final Long memorySwap;
+	
+	private ResourceLimits(
+		final Long nanoCpus,
+		final Long cpuQuota,
+		final Long cpuPeriod,
+		final Integer cpuShares,
+		final String cpusetCpus,
+		final Long memory,
+		final Long memorySwap)
+	{
+		this.nanoCpus = nanoCpus;
+		this.cpuQuota = cpuQuota;
+		this.cpuPeriod = cpuPeriod;
+		this.cpuShares = cpuShares;
+		this.cpusetCpus = cpusetCpus;
+		this.memory = memory;
+		this.memorySwap = memorySwap;
+	}
+	
+	public static ResourceLimits none()
+	{
+		return NONE;
+	}
+	
+	/**
+	 * @param cpus Amount of CPUs the container may use, e.g. <code>1.5</code> (like <code>docker run --cpus</code>)
+	 */
+	public ResourceLimits withCpus(final double cpus)
+	{
+		if(cpus <= 0)
+		{
+			throw new IllegalArgumentException("cpus must be positive");
+		}
+		return new ResourceLimits(
+			Math.round(cpus * NANO_CPUS_PER_CPU),
+			this.cpuQuota,
+			this.cpuPeriod,
+			this.cpuShares,
+			this.cpusetCpus,
+			this.memory,
+			this.memorySwap);
+	}
+	
+	/**
+	 * @param cpuQuota  Microseconds of CPU time the container may use per period
+	 * @param cpuPeriod Length of a period in microseconds
+	 */
+	public ResourceLimits withCpuQuota(final long cpuQuota, final long cpuPeriod)
+	{
+		return new ResourceLimits(
+			this.nanoCpus,
+			cpuQuota,
+			cpuPeriod,
+			this.cpuShares,
+			this.cpusetCpus,
+			this.memory,
+			this.memorySwap);
+	}
+	
+	/**
+	 * @param cpuShares Relative weight when CPUs are contended (default: <code>1024</code>)
+	 */
+	public ResourceLimits withCpuShares(final int cpuShares)
+	{
+		return new ResourceLimits(
+			this.nanoCpus,
+			this.cpuQuota,
+			this.cpuPeriod,
+			cpuShares,
+			this.cpusetCpus,
+			this.memory,
+			this.memorySwap);
+	}
+	
+	/**
+	 * @param cpusetCpus The CPUs the container may run on, e.g. <code>0-3</code> or <code>1,3</code>
+	 * @see CpusetAllocator
+	 */
+	public ResourceLimits withCpusetCpus(final String cpusetCpus)
+	{
+		return new ResourceLimits(
+			this.nanoCpus,
+			this.cpuQuota,
+			this.cpuPeriod,
+			this.cpuShares,
+			cpusetCpus,
+			this.memory,
+			this.memorySwap);
+	}
+	
+	/**
+	 * @param memory     Memory limit in bytes
+	 * @param memorySwap Memory + swap limit in bytes; Use the same value as <code>memory</code> to disable swapping
+	 */
+	public ResourceLimits withMemory(final long memory, final long memorySwap)
+	{
+		return new ResourceLimits(
+			this.nanoCpus,
+			this.cpuQuota,
+			this.cpuPeriod,
+			this.cpuShares,
+			this.cpusetCpus,
+			memory,
+			memorySwap);
+	}
+	
+	public String getCpusetCpus()
+	{
+		return this.cpusetCpus;
+	}
+	
+	public void applyTo(final HostConfig hostConfig)
+	{
+		if(this.nanoCpus != null)
+		{
+			hostConfig.withNanoCPUs(this.nanoCpus);
+		}
+		if(this.cpuQuota != null)
+		{
+			hostConfig.withCpuQuota(this.cpuQuota).withCpuPeriod(this.cpuPeriod);
+		}
+		if(this.cpuShares != null)
+		{
+			hostConfig.withCpuShares(this.cpuShares);
+		}
+		if(this.cpusetCpus != null)
+		{
+			hostConfig.withCpusetCpus(this.cpusetCpus);
+		}
+		if(this.memory != null)
+		{
+			hostConfig.withMemory(this.memory).withMemorySwap(this.memorySwap);
+		}
+	}
+	
+	@Override
+	public boolean equals(final Object o)
+	{
+		if(this == o)
+		{
+			return true;
+		}
+		if(!(o instanceof final ResourceLimits that))
+		{
+			return false;
+		}
+		return Objects.equals(this.nanoCpus, that.nanoCpus)
+			&& Objects.equals(this.cpuQuota, that.cpuQuota)
+			&& Objects.equals(this.cpuPeriod, that.cpuPeriod)
+			&& Objects.equals(this.cpuShares, that.cpuShares)
+			&& Objects.equals(this.cpusetCpus, that.cpusetCpus)
+			&& Objects.equals(this.memory, that.memory)
+			&& Objects.equals(this.memorySwap, that.memorySwap);
+	}
+	
+	@Override
+	public int hashCode()
+	{
+		return Objects.hash(
+			this.nanoCpus,
+			this.cpuQuota,
+			this.cpuPeriod,
+			this.cpuShares,
+			this.cpusetCpus,
+			this.memory,
+			this.memorySwap);
+	}
+	
+	@Override
+	public String toString()
+	{
+		return "ResourceLimits{"
+			+ "nanoCpus=" + this.nanoCpus
+			+ ", cpuQuota=" + this.cpuQuota
+			+ ", cpuPeriod=" + this.cpuPeriod
+			+ ", cpuShares=" + this.cpuShares
+			+ ", cpusetCpus='" + this.cpusetCpus + '\''
+			+ ", memory=" + this.memory
+			+ ", memorySwap=" + this.memorySwap
+			+ '}';
+	}
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.containers.browser;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+
+class BrowserContainerGroupTest
+{
+	@Test
+	void reportsResultForEveryContainerInOrder()
+	{
+		final BrowserContainerGroup group = new BrowserContainerGroup().withDeadline(Duration.ofSeconds(10));
+		final BrowserWebDriverContainer<?> first =
+			group.add(new BrowserWebDriverContainer<>(BrowserWebDriverContainer.CHROME_IMAGE));
+		final BrowserWebDriverContainer<?> second =
+			group.add(new BrowserWebDriverContainer<>(BrowserWebDriverContainer.FIREFOX_IMAGE));
+		
+		// Containers were never started -> Nothing to stop
+		final List<StopResult> results = group.stopAll();
+		
+		Assertions.assertEquals(List.of(first, second), results.stream().map(StopResult::container).toList());
+		Assertions.assertTrue(results.stream().allMatch(StopResult::succeeded));
+		Assertions.assertTrue(group.getContainers().isEmpty());
+	}
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.containers.browser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+
+class BrowserContainerPoolTest
+{
+	private final List<FakeBrowserContainer> created = new ArrayList<>();
+	private ExecutorService executor;
+	
+	@BeforeEach
+	void setUp()
+	{
+		this.executor = Executors.newCachedThreadPool();
+	}
+	
+	@AfterEach
+	void tearDown()
+	{
+		this.executor.shutdownNow();
+	}
+	
+	@Test
+	void warmContainerIsLeased()
+	{
+		try(final BrowserContainerPool<FakeBrowserContainer> pool = this.newPool(1).warmUp();
+			final BrowserContainerPool.Lease<FakeBrowserContainer> lease = pool.lease())
+		{
+			Assertions.assertEquals(1, this.created.size());
+			Assertions.assertSame(this.created.get(0), lease.getContainer());
+			Assertions.assertTrue(lease.getContainer().isRunning());
+			Assertions.assertEquals(1, pool.getLeasedCount());
+		}
+	}
+	
+	@Test
+	void releasedContainerIsResetAndReused() throws InterruptedException
+	{
+		try(final BrowserContainerPool<FakeBrowserContainer> pool = this.newPool(1))
+		{
+			final BrowserContainerPool.Lease<FakeBrowserContainer> first = pool.lease();
+			final FakeBrowserContainer container = first.getContainer();
+			first.close();
+			// Releasing twice has no effect
+			first.close();
+			
+			Assertions.assertEquals(0, pool.getLeasedCount());
+			Assertions.assertTrue(container.reset.await(10, TimeUnit.SECONDS));
+			
+			try(final BrowserContainerPool.Lease<FakeBrowserContainer> second = pool.lease())
+			{
+				Assertions.assertSame(container, second.getContainer());
+			}
+			Assertions.assertEquals(1, this.created.size());
+			Assertions.assertEquals(1, container.startCount.get());
+			Assertions.assertEquals(0, container.stopCount.get());
+		}
+	}
+	
+	@Test
+	void surplusColdStartedContainerIsStoppedOnRelease()
+	{
+		try(final BrowserContainerPool<FakeBrowserContainer> pool = this.newPool(1).warmUp())
+		{
+			final BrowserContainerPool.Lease<FakeBrowserContainer> warm = pool.lease();
+			// Pool is exhausted -> Cold start
+			final BrowserContainerPool.Lease<FakeBrowserContainer> cold = pool.lease();
+			Assertions.assertEquals(2, this.created.size());
+			Assertions.assertEquals(2, pool.getLeasedCount());
+			
+			warm.close();
+			cold.close();
+			
+			Assertions.assertEquals(0, warm.getContainer().stopCount.get());
+			Assertions.assertEquals(1, cold.getContainer().stopCount.get());
+		}
+	}
+	
+	@Test
+	void stoppedContainerIsReplacedOnRelease()
+	{
+		try(final BrowserContainerPool<FakeBrowserContainer> pool = this.newPool(1))
+		{
+			final BrowserContainerPool.Lease<FakeBrowserContainer> lease = pool.lease();
+			lease.getContainer().running.set(false);
+			lease.close();
+			
+			Assertions.assertEquals(1, lease.getContainer().stopCount.get());
+			
+			try(final BrowserContainerPool.Lease<FakeBrowserContainer> next = pool.lease())
+			{
+				Assertions.assertNotSame(lease.getContainer(), next.getContainer());
+				Assertions.assertTrue(next.getContainer().isRunning());
+			}
+		}
+	}
+	
+	@Test
+	void closeStopsIdleAndLaterReleasedContainers()
+	{
+		final BrowserContainerPool<FakeBrowserContainer> pool = this.newPool(2).warmUp();
+		final BrowserContainerPool.Lease<FakeBrowserContainer> lease = pool.lease();
+		
+		pool.close();
+		
+		Assertions.assertEquals(2, this.created.size());
+		Assertions.assertEquals(0, lease.getContainer().stopCount.get());
+		Assertions.assertTrue(this.created.stream()
+			.filter(container -> container != lease.getContainer())
+			.allMatch(container -> container.stopCount.get() == 1));
+		Assertions.assertThrows(IllegalStateException.class, pool::lease);
+		
+		lease.close();
+		Assertions.assertEquals(1, lease.getContainer().stopCount.get());
+	}
+	
+	@Test
+	void releaseRacingWithCloseStopsContainer()
+	{
+		final BrowserContainerPool<FakeBrowserContainer> pool = this.newPool(1);
+		final BrowserContainerPool.Lease<FakeBrowserContainer> lease = pool.lease();
+		// Close happens after release checked the state of the pool but before the container is queued
+		lease.getContainer().beforeIsRunning = pool::close;
+		
+		lease.close();
+		
+		Assertions.assertEquals(1, lease.getContainer().stopCount.get());
+		Assertions.assertTrue(pool.idle.isEmpty());
+	}
+	
+	@Test
+	void releaseOfStoppedContainerRacingWithCloseIsNotReplaced()
+	{
+		final BrowserContainerPool<FakeBrowserContainer> pool = this.newPool(1);
+		final BrowserContainerPool.Lease<FakeBrowserContainer> lease = pool.lease();
+		lease.getContainer().running.set(false);
+		lease.getContainer().beforeIsRunning = pool::close;
+		
+		Assertions.assertDoesNotThrow(lease::close);
+		
+		Assertions.assertEquals(1, lease.getContainer().stopCount.get());
+		Assertions.assertEquals(1, this.created.size());
+		Assertions.assertTrue(pool.idle.isEmpty());
+	}
+	
+	private BrowserContainerPool<FakeBrowserContainer> newPool(final int size)
+	{
+		return new BrowserContainerPool<>(this::newContainer)
+			.withSize(size)
+			.withExecutor(this.executor);
+	}
+	
+	private synchronized FakeBrowserContainer newContainer()
+	{
+		final FakeBrowserContainer container = new FakeBrowserContainer(this.created.size());
+		this.created.add(container);
+		return container;
+	}
+	
+	static class FakeBrowserContainer extends BrowserWebDriverContainer<FakeBrowserContainer>
+	{
+		final String id;
+		final AtomicInteger startCount = new AtomicInteger();
+		final AtomicInteger stopCount = new AtomicInteger();
+		final CountDownLatch reset = new CountDownLatch(2);
+		final AtomicBoolean running = new AtomicBoolean();
+		Runnable beforeIsRunning = () -> {
+		};
+		
+		FakeBrowserContainer(final int index)
+		{
+			super(BrowserWebDriverContainer.CHROME_IMAGE);
+			this.id = "fake-" + index;
+		}
+		
+		@Override
+		public void start()
+		{
+			this.startCount.incrementAndGet();
+			this.running.set(true);
+		}
+		
+		@Override
+		public void stop()
+		{
+			this.stopCount.incrementAndGet();
+			this.running.set(false);
+		}
+		
+		@Override
+		public boolean isRunning()
+		{
+			this.beforeIsRunning.run();
+			return this.running.get();
+		}
+		
+		@Override
+		public String getContainerId()
+		{
+			return this.id;
+		}
+		
+		@Override
+		public void deleteActiveSessions()
+		{
+			this.reset.countDown();
+		}
+		
+		@Override
+		public void restartRecordingContainer()
+		{
+			this.reset.countDown();
+		}
+	}
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.containers.browser;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.testcontainers.utility.DockerImageName;
+
+
+class FileImageTranslationCacheTest
+{
+	static final DockerImageName REQUESTED = DockerImageName.parse("selenium/standalone-chrome:4.99.1");
+	static final String WORKING = "selenium/standalone-chrome:4.99";
+	
+	@TempDir
+	Path tempDir;
+	
+	@Test
+	void sharedAcrossInstances()
+	{
+		final Path file = this.tempDir.resolve("cache.properties");
+		new FileImageTranslationCache(file, Duration.ofHours(1)).put(REQUESTED, WORKING);
+		
+		Assertions.assertEquals(
+			Optional.of(WORKING),
+			new FileImageTranslationCache(file, Duration.ofHours(1)).get(REQUESTED));
+	}
+	
+	@Test
+	void expiredEntriesAreIgnored()
+	{
+		final FileImageTranslationCache cache =
+			new FileImageTranslationCache(this.tempDir.resolve("cache.properties"), Duration.ZERO);
+		cache.put(REQUESTED, WORKING);
+		
+		Assertions.assertEquals(Optional.empty(), cache.get(REQUESTED));
+	}
+	
+	@Test
+	void otherRepositoryIsRejected()
+	{
+		final FileImageTranslationCache cache =
+			new FileImageTranslationCache(this.tempDir.resolve("cache.properties"), Duration.ofHours(1));
+		cache.put(REQUESTED, "evil/standalone-chrome:4.99");
+		
+		Assertions.assertEquals(Optional.empty(), cache.get(REQUESTED));
+	}
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.containers.browser;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.utility.DockerImageName;
+
+
+class ImageTagProbeTest
+{
+	@Test
+	void manifestURIOfDockerHubImage()
+	{
+		Assertions.assertEquals(
+			URI.create("https://registry-1.docker.io/v2/selenium/standalone-chrome/manifests/4.20.0"),
+			ImageTagProbe.manifestURI(DockerImageName.parse("selenium/standalone-chrome:4.20.0")));
+		Assertions.assertEquals(
+			URI.create("https://registry-1.docker.io/v2/library/alpine/manifests/3"),
+			ImageTagProbe.manifestURI(DockerImageName.parse("alpine:3")));
+	}
+	
+	@Test
+	void manifestURIOfOtherRegistry()
+	{
+		Assertions.assertEquals(
+			URI.create("https://ghcr.io/v2/org/image/manifests/1.2"),
+			ImageTagProbe.manifestURI(DockerImageName.parse("ghcr.io/org/image:1.2")));
+	}
+	
+	@Test
+	void dockerHub()
+	{
+		Assertions.assertTrue(ImageTagProbe.isDockerHub(DockerImageName.parse("selenium/standalone-chrome")));
+		Assertions.assertTrue(ImageTagProbe.isDockerHub(DockerImageName.parse("docker.io/library/alpine")));
+		Assertions.assertFalse(ImageTagProbe.isDockerHub(DockerImageName.parse("ghcr.io/org/image")));
+	}
+	
+	@Test
+	void parallelProbingCompletesOnceMostSpecificExistingTagIsKnown()
+	{
+		final CountDownLatch slowProbe = new CountDownLatch(1);
+		final BrowserWebDriverContainer<?> container = new BrowserWebDriverContainer<>(
+			BrowserWebDriverContainer.CHROME_IMAGE)
+			.withImageTagProbe(new ImageTagProbe()
+			{
+				@Override
+				public Optional<Boolean> exists(final DockerImageName image)
+				{
+					return switch(image.getVersionPart())
+					{
+						case "1.2.3" -> Optional.of(false);
+						case "1.2" -> Optional.of(true);
+						default ->
+						{
+							try
+							{
+								slowProbe.await();
+							}
+							catch(final InterruptedException e)
+							{
+								Thread.currentThread().interrupt();
+							}
+							yield Optional.empty();
+						}
+					};
+				}
+			});
+		try
+		{
+			final List<String> tags = Assertions.assertTimeoutPreemptively(
+				Duration.ofSeconds(10),
+				() -> container.filterExistingTagsInParallel(
+					DockerImageName.parse("selenium/standalone-chrome:1.2.3"),
+					List.of("1.2.3", "1.2", "1")));
+			
+			// The less specific tag is still unknown -> Kept as fallback
+			Assertions.assertEquals(List.of("1.2", "1"), tags);
+		}
+		finally
+		{
+			slowProbe.countDown();
+		}
+	}
+	
+	@Test
+	void parseBearerChallenge()
+	{
+		Assertions.assertEquals(
+			Map.of(
+				"realm", "https://auth.docker.io/token",
+				"service", "registry.docker.io",
+				"scope", "repository:selenium/standalone-chrome:pull"),
+			ImageTagProbe.parseBearerChallenge("Bearer realm=\"https://auth.docker.io/token\","
+				+ "service=\"registry.docker.io\",scope=\"repository:selenium/standalone-chrome:pull\""));
+		Assertions.assertTrue(ImageTagProbe.parseBearerChallenge("Basic realm=\"x\"").isEmpty());
+	}
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.containers.browser;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+
+class ShmSizingPolicyTest
+{
+	private static final long MB = 1024L * 1024L;
+	
+	@Test
+	void browserAwareScalesWithBrowserHeadlessAndSessions()
+	{
+		final BrowserAwareShmSizingPolicy policy = ShmSizingPolicy.browserAware();
+		
+		Assertions.assertEquals(
+			64 * MB + 256 * MB,
+			policy.computeShmSize(new ShmSizingContext("chrome", true, 1)));
+		Assertions.assertEquals(
+			64 * MB + 64 * MB + 4 * 512 * MB,
+			policy.computeShmSize(new ShmSizingContext("chrome", false, 4)));
+		Assertions.assertTrue(
+			policy.computeShmSize(new ShmSizingContext("firefox", false, 1))
+				< policy.computeShmSize(new ShmSizingContext("chrome", false, 1)));
+	}
+	
+	@Test
+	void parsesDfOutput()
+	{
+		Assertions.assertEquals(
+			Optional.of(new ShmUsage(67_108_864L, 4096L)),
+			BrowserWebDriverContainer.parseShmUsage("""
+				Filesystem     1-blocks  Used Available Capacity Mounted on
+				shm            67108864  4096  67104768       1% /dev/shm
+				"""));
+		Assertions.assertEquals(
+			Optional.empty(),
+			BrowserWebDriverContainer.parseShmUsage("df: /dev/shm: No such file"));
+	}
+}
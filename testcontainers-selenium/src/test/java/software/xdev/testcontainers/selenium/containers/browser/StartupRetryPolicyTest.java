@@ -0,0 +1,73 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.containers.browser;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.ContainerFetchException;
+import org.testcontainers.containers.ContainerLaunchException;
+
+
+class StartupRetryPolicyTest
+{
+	@Test
+	void classifiesCauseChain()
+	{
+		final StartupRetryPolicy policy = StartupRetryPolicy.defaults();
+		
+		Assertions.assertEquals(
+			StartupFailureReason.IMAGE_PULL,
+			policy.classify(new ContainerLaunchException(
+				"Container startup failed",
+				new ContainerFetchException("Can't get Docker image", new IllegalStateException()))));
+		Assertions.assertEquals(
+			StartupFailureReason.PORT_BIND,
+			policy.classify(new ContainerLaunchException(
+				"Could not create/start container",
+				new IllegalStateException("Bind for 0.0.0.0:4444 failed: port is already allocated"))));
+		Assertions.assertEquals(
+			StartupFailureReason.UNKNOWN,
+			policy.classify(new ContainerLaunchException("Something else")));
+	}
+	
+	@Test
+	void onlyRetriesRecoverableFailuresWithinLimits()
+	{
+		final StartupRetryPolicy policy = StartupRetryPolicy.defaults()
+			.withMaxAttempts(3)
+			.withBackoff(Duration.ofSeconds(1), Duration.ofSeconds(3))
+			.withDeadline(Duration.ofMinutes(1));
+		
+		Assertions.assertEquals(
+			Optional.empty(),
+			policy.nextBackoff(1, StartupFailureReason.IMAGE_PULL, Duration.ZERO));
+		Assertions.assertEquals(
+			Optional.of(Duration.ofSeconds(1)),
+			policy.nextBackoff(1, StartupFailureReason.WAIT_TIMEOUT, Duration.ZERO));
+		Assertions.assertEquals(
+			Optional.of(Duration.ofSeconds(2)),
+			policy.nextBackoff(2, StartupFailureReason.WAIT_TIMEOUT, Duration.ZERO));
+		Assertions.assertEquals(
+			Optional.empty(),
+			policy.nextBackoff(3, StartupFailureReason.WAIT_TIMEOUT, Duration.ZERO));
+		Assertions.assertEquals(
+			Optional.empty(),
+			policy.nextBackoff(1, StartupFailureReason.WAIT_TIMEOUT, Duration.ofSeconds(59)));
+	}
+}
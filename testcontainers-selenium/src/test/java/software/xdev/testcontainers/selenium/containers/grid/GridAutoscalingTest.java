@@ -0,0 +1,76 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.containers.grid;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+
+class GridAutoscalingTest
+{
+	static final Duration IDLE = Duration.ofSeconds(30);
+	static final Instant NOW = Instant.parse("2024-01-01T12:00:00Z");
+	
+	@Test
+	void nodesToAddRespectsStartingNodesAndMaximum()
+	{
+		Assertions.assertEquals(2, GridAutoscaling.nodesToAdd(2, 1, 0, 5));
+		// Starting nodes will take queued requests
+		Assertions.assertEquals(1, GridAutoscaling.nodesToAdd(2, 1, 1, 5));
+		Assertions.assertEquals(1, GridAutoscaling.nodesToAdd(5, 3, 1, 5));
+		Assertions.assertEquals(0, GridAutoscaling.nodesToAdd(1, 5, 0, 5));
+		Assertions.assertEquals(0, GridAutoscaling.nodesToAdd(1, 1, 2, 5));
+	}
+	
+	@Test
+	void nodesAreOnlyRemovedAfterBeingIdleLongEnough()
+	{
+		final Map<String, Instant> idleSince = new HashMap<>();
+		final List<String> nodes = List.of("a", "b", "c");
+		
+		// First seen idle -> Starts tracking
+		Assertions.assertEquals(
+			List.of(),
+			GridAutoscaling.selectNodesToRemove(nodes, Set.of(), idleSince, 1, IDLE, NOW));
+		Assertions.assertEquals(
+			List.of("a", "b"),
+			GridAutoscaling.selectNodesToRemove(nodes, Set.of(), idleSince, 1, IDLE, NOW.plus(IDLE)));
+	}
+	
+	@Test
+	void busyNodesAreKeptAndResetTheirIdleTime()
+	{
+		final Map<String, Instant> idleSince = new HashMap<>(Map.of("a", NOW, "b", NOW));
+		
+		Assertions.assertEquals(
+			List.of("b"),
+			GridAutoscaling.selectNodesToRemove(
+				List.of("a", "b"),
+				Set.of("a"),
+				idleSince,
+				0,
+				IDLE,
+				NOW.plus(IDLE)));
+		Assertions.assertFalse(idleSince.containsKey("a"));
+	}
+}
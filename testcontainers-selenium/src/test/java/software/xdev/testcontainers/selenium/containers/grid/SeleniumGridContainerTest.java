@@ -0,0 +1,109 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.containers.grid;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+
+class SeleniumGridContainerTest
+{
+	private final List<FakeNode> created = new ArrayList<>();
+	private Runnable nextNodeStartHook = () -> {
+	};
+	
+	@Test
+	void startedNodesAreStoppedWhenInitialStartFails()
+	{
+		final AtomicInteger nodeCount = new AtomicInteger();
+		final SeleniumGridContainer<?> grid = new SeleniumGridContainer<>(() -> {
+			final FakeNode node = this.newNode();
+			// Second node fails
+			node.failStart = nodeCount.incrementAndGet() == 2;
+			return node;
+		}).withNodes(3);
+		
+		Assertions.assertThrows(CompletionException.class, () -> grid.containerIsStarted(null, false));
+		
+		Assertions.assertEquals(3, this.created.size());
+		Assertions.assertTrue(this.created.stream().allMatch(node -> node.stopCount.get() == 1));
+		Assertions.assertTrue(grid.getNodes().isEmpty());
+	}
+	
+	@Test
+	void nodeStartedWhileGridStopsIsStopped()
+	{
+		final SeleniumGridContainer<?> grid = new SeleniumGridContainer<>(this::newNode).withNodes(0, 2);
+		grid.containerIsStarted(null, false);
+		try
+		{
+			// The grid is stopped while the node is starting, e.g. by the autoscaler
+			this.nextNodeStartHook = grid::stop;
+			
+			Assertions.assertThrows(IllegalStateException.class, grid::addNode);
+			Assertions.assertEquals(1, this.created.get(0).stopCount.get());
+			Assertions.assertTrue(grid.getNodes().isEmpty());
+			// No further nodes once stopped
+			Assertions.assertThrows(IllegalStateException.class, grid::addNode);
+			Assertions.assertEquals(1, this.created.size());
+		}
+		finally
+		{
+			grid.stop();
+		}
+	}
+	
+	private synchronized FakeNode newNode()
+	{
+		final FakeNode node = new FakeNode(this.nextNodeStartHook);
+		this.created.add(node);
+		return node;
+	}
+	
+	static class FakeNode extends SeleniumGridNodeContainer<FakeNode>
+	{
+		final Runnable startHook;
+		final AtomicInteger stopCount = new AtomicInteger();
+		boolean failStart;
+		
+		FakeNode(final Runnable startHook)
+		{
+			super(SeleniumGridNodeContainer.CHROME_NODE_IMAGE);
+			this.startHook = startHook;
+		}
+		
+		@Override
+		public void start()
+		{
+			this.startHook.run();
+			if(this.failStart)
+			{
+				throw new IllegalStateException("Simulated startup failure");
+			}
+		}
+		
+		@Override
+		public void stop()
+		{
+			this.stopCount.incrementAndGet();
+		}
+	}
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.containers.recorder;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+
+class FfmpegRecordingPostProcessorTest
+{
+	@Test
+	void trimIdleDropsDuplicateFramesAndClosesGaps()
+	{
+		final List<String> command = new FfmpegRecordingPostProcessor()
+			.withCodec("libx265", "mp4")
+			.buildCommand("in.flv", "out.mp4");
+		
+		Assertions.assertTrue(command.contains("mpdecimate,setpts=N/FRAME_RATE/TB"));
+		Assertions.assertTrue(command.contains("libx265"));
+		Assertions.assertEquals("out.mp4", command.get(command.size() - 1));
+	}
+	
+	@Test
+	void outputReplacesOriginalUnlessKept()
+	{
+		final Path recording = Path.of("recordings", "test.flv");
+		
+		Assertions.assertEquals(
+			Path.of("recordings", "test.mp4"),
+			new FfmpegRecordingPostProcessor().resolveOutput(recording, "test.flv", ".flv", ".mp4"));
+		Assertions.assertEquals(
+			Path.of("recordings", "test-processed.flv"),
+			new FfmpegRecordingPostProcessor()
+				.withKeepOriginal(true)
+				.resolveOutput(recording, "test.flv", ".flv", ".flv"));
+	}
+	
+	@Test
+	void onlyVideosAreSupported()
+	{
+		final FfmpegRecordingPostProcessor processor = new FfmpegRecordingPostProcessor();
+		
+		Assertions.assertTrue(processor.supports(Path.of("test.flv")));
+		Assertions.assertTrue(processor.supports(Path.of("test.MP4")));
+		Assertions.assertFalse(processor.supports(Path.of("test.zip")));
+		Assertions.assertFalse(processor.supports(Path.of("test")));
+	}
+	
+	@Test
+	void compressionRatio()
+	{
+		Assertions.assertEquals(
+			4.0,
+			new PostProcessingResult(null, null, 400, 100, Duration.ZERO).compressionRatio(),
+			0.001);
+	}
+}
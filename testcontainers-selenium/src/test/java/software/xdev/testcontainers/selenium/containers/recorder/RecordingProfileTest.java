@@ -0,0 +1,46 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.containers.recorder;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+
+class RecordingProfileTest
+{
+	@Test
+	void lowCpuDownscalesAndReducesFrameRate()
+	{
+		final RecordingSettings settings = RecordingProfile.LOW_CPU.settingsFor(1920, 1080);
+		
+		Assertions.assertEquals(1024, settings.outputWidth());
+		Assertions.assertEquals(576, settings.outputHeight());
+		Assertions.assertEquals(10, settings.frameRate());
+	}
+	
+	@Test
+	void balancedKeepsDefaultsForDefaultDisplay()
+	{
+		final RecordingSettings settings = RecordingProfile.BALANCED.settingsFor(1360, 1020);
+		
+		Assertions.assertEquals(1360, settings.outputWidth());
+		Assertions.assertEquals(1020, settings.outputHeight());
+		Assertions.assertEquals(15, settings.frameRate());
+		
+		// Larger displays get a lower frame rate to stay within the budget
+		Assertions.assertTrue(RecordingProfile.BALANCED.settingsFor(1600, 1200).frameRate() < 15);
+	}
+}
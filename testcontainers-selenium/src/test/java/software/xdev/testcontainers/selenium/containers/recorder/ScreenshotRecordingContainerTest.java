@@ -0,0 +1,211 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.containers.recorder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import software.xdev.testcontainers.selenium.containers.browser.SeleniumStatusClient;
+
+
+class ScreenshotRecordingContainerTest
+{
+	@Test
+	void identicalFramesAreSkipped(@TempDir final Path directory) throws IOException
+	{
+		final AtomicReference<String> screen = new AtomicReference<>();
+		final ScreenshotRecordingContainer recorder = new ScreenshotRecordingContainer(
+			() -> screen.get().getBytes(StandardCharsets.UTF_8),
+			FakeStatusClient::new)
+			// Frames are only captured manually
+			.withInterval(Duration.ofHours(1));
+		try
+		{
+			recorder.start();
+			for(final String current : new String[]{"a", "a", "b", "b", "a"})
+			{
+				screen.set(current);
+				recorder.captureFrames();
+			}
+			
+			final Path recording = recorder.saveRecordingToFile(directory, "test");
+			
+			Assertions.assertEquals(directory.resolve("test.zip"), recording);
+			Assertions.assertEquals(3, readEntryNames(recording).size());
+			Assertions.assertTrue(readEntryNames(recording).get(0).startsWith("display/000001-"));
+			// Next recording starts empty
+			Assertions.assertTrue(recorder.isRunning());
+			Assertions.assertTrue(readEntryNames(recorder.saveRecordingToFile(directory, "next")).isEmpty());
+		}
+		finally
+		{
+			recorder.stop();
+		}
+		Assertions.assertFalse(recorder.isRunning());
+	}
+	
+	@Test
+	void sessionScreenshotsAreOptIn(@TempDir final Path directory) throws IOException
+	{
+		final FakeStatusClient client = new FakeStatusClient();
+		client.screen = "session";
+		final ScreenshotRecordingContainer recorder = new ScreenshotRecordingContainer(
+			() -> "display".getBytes(StandardCharsets.UTF_8),
+			() -> client)
+			.withInterval(Duration.ofHours(1));
+		try
+		{
+			recorder.start();
+			recorder.captureFrames();
+			
+			// Must not touch the sessions of the test by default
+			Assertions.assertEquals(0, client.screenshotCount.get());
+			Assertions.assertTrue(readEntryNames(recorder.saveRecordingToFile(directory, "display")).get(0)
+				.startsWith("display/"));
+			
+			recorder.withSessionScreenshots(true).captureFrames();
+			
+			Assertions.assertEquals(1, client.screenshotCount.get());
+			Assertions.assertTrue(readEntryNames(recorder.saveRecordingToFile(directory, "session")).get(0)
+				.startsWith("session1/"));
+		}
+		finally
+		{
+			recorder.stop();
+		}
+	}
+	
+	@Test
+	void statusClientIsResolvedAgainAfterFailure(@TempDir final Path directory) throws IOException
+	{
+		final AtomicInteger screenshotRequests = new AtomicInteger();
+		final HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		server.createContext("/status", exchange -> respond(
+			exchange,
+			200,
+			"{\"value\":{\"ready\":true,\"nodes\":[{\"slots\":[{\"session\":{\"sessionId\":\"session1\"}}]}]}}"));
+		server.createContext("/session/session1/screenshot", exchange -> {
+			if(screenshotRequests.incrementAndGet() == 1)
+			{
+				respond(
+					exchange,
+					500,
+					"{\"value\":{\"error\":\"unexpected alert open\",\"message\":\"Dismissed user prompt\"}}");
+				return;
+			}
+			respond(
+				exchange,
+				200,
+				"{\"value\":\"" + Base64.getEncoder().encodeToString("a".getBytes(StandardCharsets.UTF_8)) + "\"}");
+		});
+		server.start();
+		
+		final AtomicInteger resolved = new AtomicInteger();
+		final URI baseURI = URI.create("http://" + server.getAddress().getHostString() + ":"
+			+ server.getAddress().getPort());
+		final ScreenshotRecordingContainer recorder = new ScreenshotRecordingContainer(
+			() -> new byte[0],
+			() -> {
+				resolved.incrementAndGet();
+				return new SeleniumStatusClient(baseURI);
+			})
+			.withSessionScreenshots(true)
+			.withInterval(Duration.ofHours(1));
+		try
+		{
+			recorder.start();
+			recorder.captureFrames();
+			recorder.captureFrames();
+			recorder.captureFrames();
+			
+			Assertions.assertEquals(2, resolved.get());
+			Assertions.assertEquals(1, readEntryNames(recorder.saveRecordingToFile(directory, "test")).size());
+		}
+		finally
+		{
+			recorder.stop();
+			server.stop(0);
+		}
+	}
+	
+	static void respond(final HttpExchange exchange, final int statusCode, final String body) throws IOException
+	{
+		final byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.sendResponseHeaders(statusCode, bytes.length);
+		try(final OutputStream os = exchange.getResponseBody())
+		{
+			os.write(bytes);
+		}
+	}
+	
+	static List<String> readEntryNames(final Path zip) throws IOException
+	{
+		try(final FileSystem zipFs = FileSystems.newFileSystem(zip);
+			final Stream<Path> files = Files.walk(zipFs.getPath("/")))
+		{
+			return files.filter(Files::isRegularFile)
+				.map(file -> file.toString().substring(1))
+				.sorted()
+				.toList();
+		}
+	}
+	
+	static class FakeStatusClient extends SeleniumStatusClient
+	{
+		final AtomicInteger screenshotCount = new AtomicInteger();
+		String screen;
+		
+		FakeStatusClient()
+		{
+			super(URI.create("http://localhost"));
+		}
+		
+		@Override
+		public Set<String> fetchActiveSessionIds()
+		{
+			return Set.of("session1");
+		}
+		
+		@Override
+		public byte[] fetchScreenshot(final String sessionId)
+		{
+			this.screenshotCount.incrementAndGet();
+			return this.screen.getBytes(StandardCharsets.UTF_8);
+		}
+	}
+}
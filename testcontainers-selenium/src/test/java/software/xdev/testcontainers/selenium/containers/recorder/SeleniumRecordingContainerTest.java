@@ -0,0 +1,49 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.containers.recorder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import software.xdev.testcontainers.selenium.containers.browser.BrowserWebDriverContainer;
+
+
+class SeleniumRecordingContainerTest
+{
+	@Test
+	void bitrateIsMeasuredFromRecorderStart(@TempDir final Path directory) throws IOException
+	{
+		final SeleniumRecordingContainer recorder =
+			new SeleniumRecordingContainer(new BrowserWebDriverContainer<>(BrowserWebDriverContainer.CHROME_IMAGE));
+		
+		final long beforeStart = System.nanoTime();
+		recorder.containerIsStarted(null);
+		// Creating the container (pulling, starting the browser) must not count as recorded time
+		Assertions.assertTrue(recorder.recordingStartNanos.get() >= beforeStart);
+		
+		// 1 MB recorded in 8s = 1 Mbit/s
+		final Path recording = Files.write(directory.resolve("recording.mkv"), new byte[1_000_000]);
+		recorder.updateRecordingBitrate(recording, TimeUnit.SECONDS.toNanos(8));
+		
+		Assertions.assertEquals(1_000_000, recorder.getLastRecordingBitrate().orElseThrow());
+	}
+}
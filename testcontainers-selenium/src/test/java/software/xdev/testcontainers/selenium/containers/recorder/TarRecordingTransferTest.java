@@ -0,0 +1,66 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.containers.recorder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+
+class TarRecordingTransferTest
+{
+	@TempDir
+	Path tempDir;
+	
+	@Test
+	void transfersFirstFile() throws IOException
+	{
+		final byte[] content = new byte[3 * 1024 * 1024 + 17];
+		new Random(42).nextBytes(content);
+		
+		final Path target = this.tempDir.resolve("record.mkv");
+		final long transferred = TarRecordingTransfer.transferFirstFile(
+			new ByteArrayInputStream(createTar(content)),
+			target,
+			64 * 1024);
+		
+		Assertions.assertEquals(content.length, transferred);
+		Assertions.assertArrayEquals(content, Files.readAllBytes(target));
+	}
+	
+	static byte[] createTar(final byte[] content) throws IOException
+	{
+		final ByteArrayOutputStream bos = new ByteArrayOutputStream(content.length + 2048);
+		try(final TarArchiveOutputStream tar = new TarArchiveOutputStream(bos))
+		{
+			final TarArchiveEntry entry = new TarArchiveEntry("record.mkv");
+			entry.setSize(content.length);
+			tar.putArchiveEntry(entry);
+			tar.write(content);
+			tar.closeArchiveEntry();
+		}
+		return bos.toByteArray();
+	}
+}
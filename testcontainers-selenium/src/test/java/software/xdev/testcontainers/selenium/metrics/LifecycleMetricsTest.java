@@ -0,0 +1,55 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+
+class LifecycleMetricsTest
+{
+	@Test
+	void reportsSuccessAndFailure()
+	{
+		final List<String> reported = new ArrayList<>();
+		final LifecycleMetricsListener listener =
+			(phase, duration, succeeded, tags) -> reported.add(phase + ":" + succeeded + ":" + tags.get("image"));
+		
+		Assertions.assertEquals(
+			"ok",
+			LifecycleMetrics.time(listener, LifecyclePhase.RECORDING_COPY, () -> Map.of("image", "a"), () -> "ok"));
+		Assertions.assertThrows(
+			IllegalStateException.class,
+			() -> LifecycleMetrics.time(listener, LifecyclePhase.CONTAINER_STOP, () -> Map.of("image", "b"), () -> {
+				throw new IllegalStateException();
+			}));
+		
+		Assertions.assertEquals(List.of("RECORDING_COPY:true:a", "CONTAINER_STOP:false:b"), reported);
+	}
+	
+	@Test
+	void derivesBrowserFromImage()
+	{
+		Assertions.assertEquals("firefox", LifecycleMetrics.browserOf("selenium/standalone-firefox:latest"));
+		Assertions.assertEquals("chrome", LifecycleMetrics.browserOf("selenium/node-chrome:4.20"));
+		Assertions.assertEquals("custom", LifecycleMetrics.browserOf("registry.local/team/custom:1"));
+		Assertions.assertEquals(LifecycleMetrics.UNKNOWN, LifecycleMetrics.browserOf(null));
+	}
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.network;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.Network;
+
+
+class PooledNetworkManagerTest
+{
+	private final AtomicInteger created = new AtomicInteger();
+	private final List<String> removed = new ArrayList<>();
+	
+	private Network newFakeNetwork()
+	{
+		final String id = "net-" + this.created.incrementAndGet();
+		return new Network()
+		{
+			@Override
+			public String getId()
+			{
+				return id;
+			}
+			
+			@Override
+			public void close()
+			{
+				PooledNetworkManagerTest.this.removed.add(id);
+			}
+		};
+	}
+	
+	@Test
+	void perPairReusesIdleNetworksAndRemovesSurplus()
+	{
+		try(final PooledNetworkManager manager = new PooledNetworkManager(PooledNetworkManager.Mode.PER_PAIR)
+			.withMaxIdle(1)
+			.withNetworkFactory(this::newFakeNetwork))
+		{
+			final PooledNetworkManager.Lease first = manager.acquire();
+			final PooledNetworkManager.Lease second = manager.acquire();
+			Assertions.assertNotEquals(first.getNetwork().getId(), second.getNetwork().getId());
+			
+			first.close();
+			second.close();
+			Assertions.assertEquals(List.of("net-2"), this.removed);
+			
+			Assertions.assertEquals("net-1", manager.acquire().getNetwork().getId());
+			Assertions.assertEquals(2, manager.getCreateStatistics().count());
+		}
+	}
+	
+	@Test
+	void perWorkerSharesNetworkUntilAllLeasesAreReleased()
+	{
+		final PooledNetworkManager manager = new PooledNetworkManager(PooledNetworkManager.Mode.PER_WORKER)
+			.withMaxIdle(0)
+			.withNetworkFactory(this::newFakeNetwork);
+		
+		final PooledNetworkManager.Lease first = manager.acquire();
+		final PooledNetworkManager.Lease second = manager.acquire();
+		Assertions.assertSame(first.getNetwork(), second.getNetwork());
+		
+		first.close();
+		Assertions.assertTrue(this.removed.isEmpty());
+		second.close();
+		Assertions.assertEquals(List.of("net-1"), this.removed);
+	}
+	
+	@Test
+	void perWorkerUsesKeyCapturedOnAnotherThread() throws Exception
+	{
+		final PooledNetworkManager manager = new PooledNetworkManager(PooledNetworkManager.Mode.PER_WORKER)
+			.withNetworkFactory(this::newFakeNetwork);
+		
+		final Object workerKey = manager.currentWorkerKey();
+		final ExecutorService otherThread = Executors.newSingleThreadExecutor();
+		try
+		{
+			final PooledNetworkManager.Lease fromOtherThread =
+				otherThread.submit(() -> manager.acquire(workerKey)).get(10, TimeUnit.SECONDS);
+			
+			Assertions.assertSame(fromOtherThread.getNetwork(), manager.acquire().getNetwork());
+		}
+		finally
+		{
+			otherThread.shutdown();
+		}
+	}
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright © 2024 XDEV Software (https://xdev.software)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.xdev.testcontainers.selenium.resources;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+
+class CpusetAllocatorTest
+{
+	@Test
+	void allocatesDisjointCpusetsAndReleasesThem()
+	{
+		final CpusetAllocator allocator = new CpusetAllocator(6);
+		
+		final CpusetAllocator.Allocation first = allocator.allocate(2).orElseThrow();
+		final CpusetAllocator.Allocation second = allocator.allocate(2).orElseThrow();
+		Assertions.assertEquals("0,1", first.getCpuset());
+		Assertions.assertEquals("2,3", second.getCpuset());
+		
+		first.close();
+		// Not contiguous -> any free CPUs are used
+		Assertions.assertEquals("0,1,4", allocator.allocate(3).orElseThrow().getCpuset());
+		Assertions.assertTrue(allocator.allocate(2).isEmpty());
+		
+		second.close();
+		second.close();
+		Assertions.assertEquals(3, allocator.getFreeCpuCount());
+	}
+}